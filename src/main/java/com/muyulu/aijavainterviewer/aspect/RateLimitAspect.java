@@ -2,26 +2,32 @@ package com.muyulu.aijavainterviewer.aspect;
 
 import com.muyulu.aijavainterviewer.common.annotation.RateLimit;
 import com.muyulu.aijavainterviewer.common.exception.BusinessException;
+import com.muyulu.aijavainterviewer.common.ratelimit.ConcurrencyLimiter;
+import com.muyulu.aijavainterviewer.common.ratelimit.RateLimitDescriptor;
+import com.muyulu.aijavainterviewer.common.ratelimit.RateLimitRegistry;
+import com.muyulu.aijavainterviewer.common.ratelimit.RateLimiterEngine;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.redisson.api.RRateLimiter;
-import org.redisson.api.RateIntervalUnit;
-import org.redisson.api.RateType;
-import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 限流切面
- * 基于 Redisson RRateLimiter 实现令牌桶限流
+ * 限流参数由 RateLimitRegistry 在启动时解析；令牌桶由 RateLimiterEngine 从 Redisson RRateLimiter 批量租用令牌到本地，Redis 不可用时降级为本地限流；
+ * 并发限流的许可在流式响应结束或取消时释放
  */
 @Slf4j
 @Aspect
@@ -29,108 +35,92 @@ import java.lang.reflect.Method;
 public class RateLimitAspect {
 
     @Autowired
-    private RedissonClient redissonClient;
+    private RateLimiterEngine rateLimiterEngine;
 
-    private static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
+    @Autowired
+    private RateLimitRegistry rateLimitRegistry;
 
-    @Around("@annotation(com.muyulu.aijavainterviewer.common.annotation.RateLimit)")
-    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
 
-        if (rateLimit == null) {
+    @Around("@annotation(com.muyulu.aijavainterviewer.common.annotation.RateLimit) || "
+            + "@annotation(com.muyulu.aijavainterviewer.common.annotation.RateLimits)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
             return joinPoint.proceed();
         }
 
-        // 构建限流器 Key
-        String key = buildRateLimitKey(rateLimit, method);
-        
-        // 获取或创建限流器
-        RRateLimiter rateLimiter = redissonClient.getRateLimiter(key);
-        
-        // 初始化限流器配置（如果未初始化）
-        if (!rateLimiter.isExists()) {
-            // 令牌桶算法：capacity 为桶容量，rate 为每秒生成的令牌数
-            rateLimiter.trySetRate(
-                RateType.OVERALL,      // 全局限流模式
-                rateLimit.rate(),      // 速率
-                1,                     // 时间间隔
-                RateIntervalUnit.SECONDS // 时间单位
-            );
-            log.info("初始化限流器: key={}, rate={}/s, capacity={}", 
-                    key, rateLimit.rate(), rateLimit.capacity());
+        // 启动时已解析好的限流描述
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        List<RateLimitDescriptor> descriptors = rateLimitRegistry.get(method);
+        if (descriptors.isEmpty()) {
+            return joinPoint.proceed();
         }
 
-        // 尝试获取令牌
-        boolean acquired = rateLimiter.tryAcquire(1);
-        
-        if (!acquired) {
-            log.warn("限流触发: key={}, message={}", key, rateLimit.message());
-            throw new BusinessException(429, rateLimit.message());
+        HttpServletRequest request = currentRequest();
+        List<ConcurrencyLimiter.Permit> permits = null;
+        // 并发限流排在最前，被后面的速率限制拒绝时归还已占用的许可；令牌桶/滑动窗口扣减后无法退回，排在最后
+        for (RateLimitDescriptor descriptor : descriptors) {
+            // 构建限流器 Key
+            String key = descriptor.resolveKey(request);
+            if (descriptor.mode() == RateLimit.Mode.CONCURRENCY) {
+                ConcurrencyLimiter.Permit permit = rateLimiterEngine.tryAcquirePermit(descriptor, key);
+                if (permit == null) {
+                    releaseAll(permits);
+                    throw rejected(key, descriptor);
+                }
+                if (permits == null) {
+                    permits = new ArrayList<>(1);
+                }
+                permits.add(permit);
+            } else if (!rateLimiterEngine.tryAcquire(descriptor, key)) {
+                releaseAll(permits);
+                throw rejected(key, descriptor);
+            }
         }
 
-        log.debug("限流通过: key={}, 剩余令牌: {}", key, rateLimiter.availablePermits());
-        
         // 执行目标方法
-        return joinPoint.proceed();
+        if (permits == null) {
+            return joinPoint.proceed();
+        }
+        return proceedHoldingPermits(joinPoint, permits);
     }
 
     /**
-     * 构建限流器 Key
+     * 持有并发许可执行目标方法：流式响应在 Flux/Mono 完成、出错或被取消时释放，其余返回值在方法返回后立即释放
      */
-    private String buildRateLimitKey(RateLimit rateLimit, Method method) {
-        String name = rateLimit.name();
-        if (name.isEmpty()) {
-            name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    private Object proceedHoldingPermits(ProceedingJoinPoint joinPoint, List<ConcurrencyLimiter.Permit> permits) throws Throwable {
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            releaseAll(permits);
+            throw e;
         }
+        if (result instanceof Flux<?> flux) {
+            return flux.doFinally(signal -> releaseAll(permits));
+        }
+        if (result instanceof Mono<?> mono) {
+            return mono.doFinally(signal -> releaseAll(permits));
+        }
+        releaseAll(permits);
+        return result;
+    }
 
-        String suffix = "";
-        switch (rateLimit.limitType()) {
-            case USER -> {
-                // 用户级别限流：从请求属性中获取 userId
-                ServletRequestAttributes attributes = 
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-                if (attributes != null) {
-                    HttpServletRequest request = attributes.getRequest();
-                    Object userId = request.getAttribute("userId");
-                    suffix = userId != null ? ":user:" + userId : ":anonymous";
-                }
-            }
-            case IP -> {
-                // IP 级别限流：获取客户端 IP
-                ServletRequestAttributes attributes = 
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-                if (attributes != null) {
-                    HttpServletRequest request = attributes.getRequest();
-                    String ip = getClientIp(request);
-                    suffix = ":ip:" + ip;
-                }
-            }
-            case GLOBAL -> {
-                // 全局限流：不添加后缀
-                suffix = ":global";
-            }
+    private void releaseAll(List<ConcurrencyLimiter.Permit> permits) {
+        if (permits != null) {
+            permits.forEach(ConcurrencyLimiter.Permit::release);
         }
+    }
 
-        return RATE_LIMIT_KEY_PREFIX + name + suffix;
+    private BusinessException rejected(String key, RateLimitDescriptor descriptor) {
+        log.warn("限流触发: key={}, message={}", key, descriptor.message());
+        return new BusinessException(429, descriptor.message());
     }
 
-    /**
-     * 获取客户端真实 IP
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("X-Real-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // 处理多个 IP 的情况，取第一个
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
+    private HttpServletRequest currentRequest() {
+        ServletRequestAttributes attributes =
+                (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes != null ? attributes.getRequest() : null;
     }
 }
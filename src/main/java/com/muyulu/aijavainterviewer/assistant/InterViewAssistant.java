@@ -106,6 +106,9 @@ public class InterViewAssistant {
      * @return 流式响应
      */
     public Flux<String> chatStreamWithRag(String chatId, String userInput, String resumeContent) {
+        // 面试官上一个问题，用于判断 RAG 上下文是否需要刷新
+        String lastQuestion = lastAssistantMessage(chatId);
+
         // 手动添加用户消息到记忆
         UserMessage userMessage = new UserMessage(userInput);
         chatMemory.add(chatId, userMessage);
@@ -121,7 +124,8 @@ public class InterViewAssistant {
         try {
             if (ragService.isVectorStoreReady()) {
                 long ragStartTime = System.currentTimeMillis();
-                ragContext = ragService.buildRagContext(resumeContent, 3);  // 限制最多3个文档片段
+                // 同一会话复用已检索的知识片段，话题偏移时才重新检索 (限制最多3个文档片段)
+                ragContext = ragService.buildRagContext(chatId, resumeContent, lastQuestion, 3);
                 long ragDuration = System.currentTimeMillis() - ragStartTime;
                 
                 if (!ragContext.isEmpty()) {
@@ -184,6 +188,19 @@ public class InterViewAssistant {
         return chatStreamWithRag(chatId, userInput, "");
     }
     
+    /**
+     * 获取对话中最后一条 AI 回复
+     */
+    private String lastAssistantMessage(String chatId) {
+        List<Message> messages = chatMemory.get(chatId);
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) instanceof AssistantMessage assistantMessage) {
+                return assistantMessage.getText();
+            }
+        }
+        return null;
+    }
+
     /**
      * 从 Redis 和对话历史中提取已提问的技术点
      * 1. 先从 Redis 读取已缓存的技术点
@@ -290,6 +307,8 @@ public class InterViewAssistant {
      * @param chatId 对话ID
      */
     public void clearAskedTopics(String chatId) {
+        // 重新开始面试，之前会话检索的知识片段不再复用
+        ragService.evictRagContext(chatId);
         String redisKey = ASKED_TOPICS_KEY_PREFIX + chatId;
         try {
             redisTemplate.delete(redisKey);
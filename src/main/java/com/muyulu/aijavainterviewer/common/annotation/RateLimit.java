@@ -4,11 +4,13 @@ import java.lang.annotation.*;
 
 /**
  * 限流注解
- * 使用 Redisson RRateLimiter 实现令牌桶限流
+ * 支持令牌桶（Redisson RRateLimiter）、滑动窗口（Redis Lua）和并发数（带租期的分布式信号量）三种模式，
+ * 同一方法可以标注多个，例如按用户限速的同时限制同时进行的流式对话数
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
+@Repeatable(RateLimits.class)
 public @interface RateLimit {
 
     /**
@@ -18,15 +20,30 @@ public @interface RateLimit {
     String name() default "";
 
     /**
-     * 令牌桶容量（最大令牌数）
+     * TOKEN_BUCKET：令牌桶容量（最大令牌数）；SLIDING_WINDOW：窗口内最大请求数；CONCURRENCY：最大并发数
      */
     long capacity() default 10;
 
     /**
-     * 速率：每秒生成的令牌数
+     * 速率：每秒生成的令牌数（仅 TOKEN_BUCKET）
      */
     long rate() default 5;
 
+    /**
+     * 限流模式
+     */
+    Mode mode() default Mode.TOKEN_BUCKET;
+
+    /**
+     * 滑动窗口长度（秒，仅 SLIDING_WINDOW）
+     */
+    long windowSeconds() default 60;
+
+    /**
+     * 并发许可租期（秒，仅 CONCURRENCY），请求异常中断未释放时到期自动回收，应大于最长的流式响应时间
+     */
+    long leaseSeconds() default 300;
+
     /**
      * 限流维度类型
      */
@@ -56,4 +73,24 @@ public @interface RateLimit {
          */
         IP
     }
+
+    /**
+     * 限流模式枚举
+     */
+    enum Mode {
+        /**
+         * 令牌桶：限制平均速率，允许 capacity 的突发
+         */
+        TOKEN_BUCKET,
+
+        /**
+         * 滑动窗口：任意 windowSeconds 秒内最多 capacity 次请求
+         */
+        SLIDING_WINDOW,
+
+        /**
+         * 并发数：同时处理中的请求最多 capacity 个，流式响应在结束或取消时释放
+         */
+        CONCURRENCY
+    }
 }
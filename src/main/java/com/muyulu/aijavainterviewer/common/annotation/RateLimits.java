@@ -0,0 +1,17 @@
+package com.muyulu.aijavainterviewer.common.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 多个限流注解的容器
+ * 检查顺序与声明顺序无关：先占用并发许可（CONCURRENCY），再依次扣减令牌桶（TOKEN_BUCKET）和滑动窗口（SLIDING_WINDOW）。
+ * 后面的限流拒绝时已占用的并发许可会归还，但已扣减的令牌/窗口计数不会退回，
+ * 因此同一方法上同时标注多个令牌桶或滑动窗口时，被后者拒绝的请求仍会消耗前者的额度
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimits {
+
+    RateLimit[] value();
+}
@@ -0,0 +1,236 @@
+package com.muyulu.aijavainterviewer.common.bloom;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 本机 Guava 布隆过滤器（可扩容）
+ * 由多层过滤器组成：当前层元素数接近容量时追加一层，新层容量翻倍、误判率减半，整体误判率保持在配置值附近；
+ * 构建时优先从磁盘快照恢复并按 create_time 增量补齐，没有可用快照时全量流式加载；构建期间登记的ID在构建完成后重放
+ */
+@Slf4j
+public class LocalResumeExistenceFilter implements ResumeExistenceFilter {
+
+    private static final int SNAPSHOT_MAGIC = 0x52424C46;
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final double SCALE_OUT_RATIO = 0.9;
+    private static final Funnel<CharSequence> FUNNEL = Funnels.stringFunnel(StandardCharsets.UTF_8);
+
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Path snapshotPath;
+    private final long snapshotOverlapSeconds;
+
+    /**
+     * 各层过滤器，扩容/恢复时整体替换为新列表
+     */
+    private volatile List<Layer> layers;
+    private volatile boolean ready;
+
+    /**
+     * 构建期间登记的ID：从快照恢复会整体替换各层，期间写入旧层的ID（其事务可能尚未提交，增量补齐也查不到）
+     * 需要在恢复后重放；构建完成后置为 null
+     */
+    private final Object pendingLock = new Object();
+    private volatile List<String> pendingPuts = new ArrayList<>();
+
+    private record Layer(BloomFilter<String> filter, long capacity, double fpp) {
+    }
+
+    public LocalResumeExistenceFilter(long expectedInsertions, double falsePositiveProbability,
+                                      Path snapshotPath, long snapshotOverlapSeconds) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.snapshotPath = snapshotPath;
+        this.snapshotOverlapSeconds = snapshotOverlapSeconds;
+        // 首层按 fpp/2 创建，各层误判率之和收敛于配置的 fpp
+        this.layers = List.of(newLayer(expectedInsertions, falsePositiveProbability / 2));
+    }
+
+    @Override
+    public boolean mightContain(String resumeId) {
+        if (!ready) {
+            return true;
+        }
+        for (Layer layer : layers) {
+            if (layer.filter().mightContain(resumeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void put(String resumeId) {
+        if (pendingPuts != null) {
+            synchronized (pendingLock) {
+                if (pendingPuts != null) {
+                    pendingPuts.add(resumeId);
+                }
+            }
+        }
+        add(resumeId);
+    }
+
+    private void add(String resumeId) {
+        List<Layer> currentLayers = layers;
+        Layer current = currentLayers.get(currentLayers.size() - 1);
+        current.filter().put(resumeId);
+        if (current.filter().approximateElementCount() >= current.capacity() * SCALE_OUT_RATIO) {
+            scaleOut(current);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void bootstrap(ResumeIdSource source) {
+        long startTime = System.currentTimeMillis();
+        Instant snapshotTime = restoreSnapshot();
+        long count;
+        if (snapshotTime != null) {
+            // 快照时间往前多取一段，覆盖应用与数据库之间的时钟偏差
+            LocalDateTime since = LocalDateTime.ofInstant(
+                    snapshotTime.minusSeconds(snapshotOverlapSeconds), ZoneId.systemDefault());
+            count = source.streamCreatedSince(since, this::add);
+            log.info("Resume Bloom filter restored from snapshot, {} ids caught up since {}", count, since);
+        } else {
+            Instant loadStart = Instant.now();
+            count = source.streamAll(this::add);
+            log.info("Resume Bloom filter loaded {} ids from database", count);
+            saveSnapshot(loadStart);
+        }
+        List<String> pending;
+        synchronized (pendingLock) {
+            pending = pendingPuts;
+            pendingPuts = null;
+        }
+        pending.forEach(this::add);
+        ready = true;
+        log.info("Local resume Bloom filter ready in {} ms, layers={}", System.currentTimeMillis() - startTime, layers.size());
+    }
+
+    @Override
+    public void snapshot() {
+        if (ready) {
+            saveSnapshot(Instant.now());
+        }
+    }
+
+    /**
+     * 当前层数
+     */
+    int layerCount() {
+        return layers.size();
+    }
+
+    private synchronized void scaleOut(Layer full) {
+        List<Layer> current = layers;
+        if (current.get(current.size() - 1) != full) {
+            // 其他线程已扩容
+            return;
+        }
+        Layer next = newLayer(full.capacity() * 2, full.fpp() / 2);
+        List<Layer> expanded = new ArrayList<>(current);
+        expanded.add(next);
+        layers = List.copyOf(expanded);
+        log.info("Resume Bloom filter scaled out: layers={}, newCapacity={}, newFpp={}",
+                layers.size(), next.capacity(), next.fpp());
+    }
+
+    private Layer newLayer(long capacity, double fpp) {
+        return new Layer(BloomFilter.create(FUNNEL, capacity, fpp), capacity, fpp);
+    }
+
+    /**
+     * 从快照恢复，返回快照时间；快照不存在、参数不一致或损坏时返回 null
+     */
+    private Instant restoreSnapshot() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring resume Bloom filter snapshot with unknown format: {}", snapshotPath);
+                return null;
+            }
+            Instant snapshotTime = Instant.ofEpochMilli(in.readLong());
+            if (in.readLong() != expectedInsertions || in.readDouble() != falsePositiveProbability) {
+                log.info("Resume Bloom filter settings changed, rebuilding from database");
+                return null;
+            }
+            int layerCount = in.readInt();
+            List<Layer> restored = new ArrayList<>(layerCount);
+            for (int i = 0; i < layerCount; i++) {
+                long capacity = in.readLong();
+                double fpp = in.readDouble();
+                restored.add(new Layer(BloomFilter.readFrom(in, FUNNEL), capacity, fpp));
+            }
+            if (restored.isEmpty()) {
+                return null;
+            }
+            layers = List.copyOf(restored);
+            return snapshotTime;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read resume Bloom filter snapshot, rebuilding from database: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入快照：先写临时文件再原子替换，快照时间取构建/写入开始的时间，之后新增的ID由下次启动的增量补齐覆盖
+     */
+    private void saveSnapshot(Instant snapshotTime) {
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, "resume-bloom-", ".tmp");
+            try (OutputStream fileOut = Files.newOutputStream(tempFile);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+                List<Layer> current = layers;
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(snapshotTime.toEpochMilli());
+                out.writeLong(expectedInsertions);
+                out.writeDouble(falsePositiveProbability);
+                out.writeInt(current.size());
+                for (Layer layer : current) {
+                    out.writeLong(layer.capacity());
+                    out.writeDouble(layer.fpp());
+                    layer.filter().writeTo(out);
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+            Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Resume Bloom filter snapshot saved: {}", snapshotPath);
+        } catch (IOException e) {
+            log.warn("Failed to save resume Bloom filter snapshot: {}", e.getMessage());
+        }
+    }
+}
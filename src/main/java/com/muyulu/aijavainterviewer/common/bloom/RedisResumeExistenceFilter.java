@@ -0,0 +1,245 @@
+package com.muyulu.aijavainterviewer.common.bloom;
+
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redisson 共享布隆过滤器（可扩容）
+ * 所有节点共用 Redis 中的过滤器，节点 A 新增的简历ID对节点 B 立即可见；
+ * 层数记录在 Redis 中，当前层元素数接近容量时由任一节点追加新层（容量翻倍、误判率减半）。
+ * 首次启动时由抢到锁的节点从数据库全量加载，完成后写入标记，其他节点无需重复加载；
+ * 其他节点加载期间 bootstrap 最多阻塞 init-lock-wait-seconds 等锁，超时后改为在后台轮询该标记，加载完成后再启用过滤
+ */
+@Slf4j
+public class RedisResumeExistenceFilter implements ResumeExistenceFilter {
+
+    private static final double SCALE_OUT_RATIO = 0.9;
+    private static final int CAPACITY_CHECK_INTERVAL = 100;
+    private static final long LAYER_REFRESH_MILLIS = 10_000;
+    private static final long INITIAL_POLL_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_POLL_BACKOFF_MILLIS = 30_000;
+
+    private final RedissonClient redissonClient;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final long initLockWaitSeconds;
+    private final RAtomicLong layerCount;
+
+    private final AtomicLong putsSinceCheck = new AtomicLong();
+    private volatile List<RBloomFilter<String>> layers = List.of();
+    private volatile long layersRefreshedAt;
+    private volatile boolean ready;
+
+    public RedisResumeExistenceFilter(RedissonClient redissonClient, long expectedInsertions,
+                                      double falsePositiveProbability, long initLockWaitSeconds) {
+        this.redissonClient = redissonClient;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.initLockWaitSeconds = initLockWaitSeconds;
+        this.layerCount = redissonClient.getAtomicLong(RedisKeyConstant.RESUME_BLOOM_PREFIX + "layers");
+    }
+
+    @Override
+    public boolean mightContain(String resumeId) {
+        if (!ready) {
+            return true;
+        }
+        try {
+            for (RBloomFilter<String> layer : layers()) {
+                if (layer.contains(resumeId)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            // Redis 不可用时无法排除，交给数据库判断
+            log.warn("Redis Bloom filter lookup failed, falling back to database: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void put(String resumeId) {
+        try {
+            List<RBloomFilter<String>> current = layers();
+            if (current.isEmpty()) {
+                // 构建前或刷新失败后还没有层，直接创建/读取，不能丢弃该ID
+                current = ensureLayers();
+                if (current.isEmpty()) {
+                    log.warn("Redis Bloom filter has no layers, resume id not added: {}", resumeId);
+                    return;
+                }
+            }
+            current.get(current.size() - 1).add(resumeId);
+            if (putsSinceCheck.incrementAndGet() % CAPACITY_CHECK_INTERVAL == 0) {
+                checkCapacity();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to add resume id to Redis Bloom filter: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void bootstrap(ResumeIdSource source) {
+        long startTime = System.currentTimeMillis();
+        ensureLayers();
+
+        RBucket<String> loaded = redissonClient.getBucket(RedisKeyConstant.RESUME_BLOOM_PREFIX + "loaded", StringCodec.INSTANCE);
+        try {
+            if (!loaded.isExists() && !loadUnderLock(loaded, source, initLockWaitSeconds)) {
+                log.warn("Timed out waiting for another node to load the Redis Bloom filter, polling the loaded marker in background");
+                awaitLoaded(loaded, source, startTime);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        markReady(startTime);
+    }
+
+    /**
+     * 首层不存在时创建，并刷新本地的层列表
+     */
+    private List<RBloomFilter<String>> ensureLayers() {
+        if (layerCount.compareAndSet(0, 1)) {
+            initLayer(0);
+        }
+        return refreshLayers();
+    }
+
+    /**
+     * 持锁加载：抢到锁且仍未加载时从数据库全量加载
+     * @return 加载标记是否已存在（由本节点或其他节点写入）；等锁超时返回 false
+     */
+    private boolean loadUnderLock(RBucket<String> loaded, ResumeIdSource source, long waitSeconds) throws InterruptedException {
+        RLock lock = redissonClient.getLock(RedisKeyConstant.RESUME_BLOOM_PREFIX + "init_lock");
+        if (!lock.tryLock(waitSeconds, TimeUnit.SECONDS)) {
+            return false;
+        }
+        try {
+            if (!loaded.isExists()) {
+                long count = source.streamAll(this::put);
+                checkCapacity();
+                loaded.set(String.valueOf(System.currentTimeMillis()));
+                log.info("Redis resume Bloom filter loaded {} ids from database", count);
+            }
+            return true;
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 等锁超时（其他节点仍在加载）后不再继续阻塞构建线程，改为在后台按指数退避轮询加载标记，出现后再置为就绪；
+     * 加载节点中途宕机时锁会被释放，轮询时顺带尝试抢锁，由本节点接手加载
+     */
+    private void awaitLoaded(RBucket<String> loaded, ResumeIdSource source, long startTime) {
+        Thread poller = new Thread(() -> {
+            long backoffMillis = INITIAL_POLL_BACKOFF_MILLIS;
+            try {
+                while (true) {
+                    Thread.sleep(backoffMillis);
+                    try {
+                        if (loaded.isExists() || loadUnderLock(loaded, source, 0)) {
+                            markReady(startTime);
+                            return;
+                        }
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        log.warn("Failed to poll Redis Bloom filter loaded marker: {}", e.getMessage());
+                    }
+                    backoffMillis = Math.min(backoffMillis * 2, MAX_POLL_BACKOFF_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "resume-bloom-await");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    private void markReady(long startTime) {
+        refreshLayers();
+        ready = true;
+        log.info("Redis resume Bloom filter ready in {} ms, layers={}", System.currentTimeMillis() - startTime, layers.size());
+    }
+
+    /**
+     * 当前层元素数接近容量时追加新层，多个节点同时检查时只有一个能扩容成功
+     */
+    private void checkCapacity() {
+        List<RBloomFilter<String>> current = refreshLayers();
+        int top = current.size() - 1;
+        if (top < 0) {
+            return;
+        }
+        if (current.get(top).count() >= layerCapacity(top) * SCALE_OUT_RATIO
+                && layerCount.compareAndSet(top + 1, top + 2)) {
+            initLayer(top + 1);
+            refreshLayers();
+            log.info("Redis resume Bloom filter scaled out: layers={}, newCapacity={}", top + 2, layerCapacity(top + 1));
+        }
+    }
+
+    private void initLayer(int index) {
+        // 首层按 fpp/2 创建，后续每层误判率减半，各层之和收敛于配置的 fpp
+        double fpp = falsePositiveProbability / Math.pow(2, index + 1);
+        layer(index).tryInit(layerCapacity(index), fpp);
+    }
+
+    private long layerCapacity(int index) {
+        return expectedInsertions << index;
+    }
+
+    private RBloomFilter<String> layer(int index) {
+        return redissonClient.getBloomFilter(RedisKeyConstant.RESUME_BLOOM_PREFIX + "layer:" + index, StringCodec.INSTANCE);
+    }
+
+    /**
+     * 层数缓存一段时间，避免每次查询都读取 Redis 中的层数
+     */
+    private List<RBloomFilter<String>> layers() {
+        if (System.currentTimeMillis() - layersRefreshedAt > LAYER_REFRESH_MILLIS) {
+            return refreshLayers();
+        }
+        return layers;
+    }
+
+    private List<RBloomFilter<String>> refreshLayers() {
+        int count = (int) layerCount.get();
+        if (count != layers.size()) {
+            List<RBloomFilter<String>> refreshed = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                RBloomFilter<String> layer = layer(i);
+                if (i == count - 1) {
+                    // 其他节点刚扩容时新层可能尚未初始化
+                    layer.tryInit(layerCapacity(i), falsePositiveProbability / Math.pow(2, i + 1));
+                }
+                refreshed.add(layer);
+            }
+            layers = List.copyOf(refreshed);
+        }
+        layersRefreshedAt = System.currentTimeMillis();
+        return layers;
+    }
+}
@@ -0,0 +1,36 @@
+package com.muyulu.aijavainterviewer.common.bloom;
+
+/**
+ * 简历存在性过滤器
+ * 用于在查库前排除不存在的简历ID。实现由 resume.bloom.mode 选择：
+ * local（本机 Guava）、redis（Redisson 共享）、two-tier（本机过滤器在前，Redis 在后）
+ */
+public interface ResumeExistenceFilter {
+
+    /**
+     * 简历ID是否可能存在；过滤器尚未构建完成时返回 true（无法排除，由调用方查库）
+     */
+    boolean mightContain(String resumeId);
+
+    /**
+     * 登记新的简历ID
+     */
+    void put(String resumeId);
+
+    /**
+     * 是否已构建完成
+     */
+    boolean isReady();
+
+    /**
+     * 构建过滤器，在后台线程调用
+     * @param source 数据库中的简历ID
+     */
+    void bootstrap(ResumeIdSource source);
+
+    /**
+     * 持久化本地状态（仅本地过滤器需要），定期及停机时调用
+     */
+    default void snapshot() {
+    }
+}
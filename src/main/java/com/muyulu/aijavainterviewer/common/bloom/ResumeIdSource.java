@@ -0,0 +1,22 @@
+package com.muyulu.aijavainterviewer.common.bloom;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * 数据库简历ID数据源，流式逐条回调，不一次性加载到内存
+ */
+public interface ResumeIdSource {
+
+    /**
+     * 读取全部简历ID
+     * @return 读取的数量
+     */
+    long streamAll(Consumer<String> sink);
+
+    /**
+     * 读取指定时间之后创建的简历ID
+     * @return 读取的数量
+     */
+    long streamCreatedSince(LocalDateTime since, Consumer<String> sink);
+}
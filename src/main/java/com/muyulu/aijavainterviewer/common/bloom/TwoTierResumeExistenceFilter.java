@@ -0,0 +1,63 @@
+package com.muyulu.aijavainterviewer.common.bloom;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 两级布隆过滤器：本机过滤器在前，Redis 共享过滤器在后
+ * 本机命中直接返回；本机未命中时再查 Redis（其他节点新增的ID只在 Redis 中），
+ * Redis 命中后回填本机，之后同一ID的查询不再访问 Redis
+ */
+@Slf4j
+public class TwoTierResumeExistenceFilter implements ResumeExistenceFilter {
+
+    private final LocalResumeExistenceFilter local;
+    private final RedisResumeExistenceFilter shared;
+
+    public TwoTierResumeExistenceFilter(LocalResumeExistenceFilter local, RedisResumeExistenceFilter shared) {
+        this.local = local;
+        this.shared = shared;
+    }
+
+    @Override
+    public boolean mightContain(String resumeId) {
+        if (local.isReady() && local.mightContain(resumeId)) {
+            return true;
+        }
+        if (!shared.isReady()) {
+            // 共享过滤器不可用时只能依赖本机结果
+            return !local.isReady() || local.mightContain(resumeId);
+        }
+        boolean present = shared.mightContain(resumeId);
+        if (present) {
+            local.put(resumeId);
+        }
+        return present;
+    }
+
+    @Override
+    public void put(String resumeId) {
+        local.put(resumeId);
+        shared.put(resumeId);
+    }
+
+    @Override
+    public boolean isReady() {
+        return local.isReady() || shared.isReady();
+    }
+
+    @Override
+    public void bootstrap(ResumeIdSource source) {
+        // 本机层先构建：Redis 层可能要等其他节点加载完成（最多 init-lock-wait-seconds），不能拖住本机层
+        try {
+            local.bootstrap(source);
+        } catch (Exception e) {
+            log.error("Local resume Bloom filter initialization failed, relying on the shared filter", e);
+        }
+        shared.bootstrap(source);
+    }
+
+    @Override
+    public void snapshot() {
+        local.snapshot();
+    }
+}
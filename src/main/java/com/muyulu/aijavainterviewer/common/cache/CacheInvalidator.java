@@ -0,0 +1,147 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存失效组件（延时双删）
+ * 所有延时删除共用一个调度线程：待删除的 Key 先登记到等待表（同一 Key 重复登记会合并），
+ * 调度线程按固定间隔取出到期的 Key，一次 DEL 批量删除；存在事务时第一次删除放到事务提交之后执行，
+ * 不依赖“更新耗时小于延时”的假设
+ */
+@Slf4j
+@Component
+public class CacheInvalidator {
+
+    private final StringRedisTemplate redisTemplate;
+    private final long delayMillis;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 待删除 Key -> 到期时间（毫秒）
+     */
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+
+    private final Counter deletedCounter;
+    private final Counter failedCounter;
+
+    public CacheInvalidator(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${cache.invalidation.delay-ms:500}") long delayMillis,
+            @Value("${cache.invalidation.flush-interval-ms:100}") long flushIntervalMillis,
+            @Value("${cache.invalidation.batch-size:500}") int batchSize
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.delayMillis = delayMillis;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushDue, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        this.deletedCounter = meterRegistry.counter("cache.invalidation.deleted");
+        this.failedCounter = meterRegistry.counter("cache.invalidation.failed");
+        Gauge.builder("cache.invalidation.pending", pending, Map::size)
+                .description("等待延时删除的缓存 Key 数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 事务提交后删除 Key，并登记延时二次删除；没有事务时立即执行
+     */
+    public void invalidateAfterCommit(String key) {
+        afterCommit(() -> invalidate(key));
+    }
+
+    /**
+     * 事务提交后执行；没有事务时立即执行
+     */
+    public void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 立即删除 Key，并登记延时二次删除
+     */
+    public void invalidate(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.warn("删除缓存失败, 交由延时删除重试: {}", key, e);
+        }
+        scheduleDelete(key);
+    }
+
+    /**
+     * 登记延时删除，到期后与其他 Key 合并成一次批量删除
+     */
+    public void scheduleDelete(String key) {
+        pending.put(key, System.currentTimeMillis() + delayMillis);
+    }
+
+    /**
+     * 删除所有到期的 Key
+     */
+    void flushDue() {
+        long now = System.currentTimeMillis();
+        List<String> due = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : pending.entrySet()) {
+            if (entry.getValue() <= now) {
+                due.add(entry.getKey());
+            }
+        }
+        deleteInBatches(due);
+    }
+
+    private void deleteInBatches(List<String> keys) {
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<String> batch = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            try {
+                redisTemplate.delete(batch);
+                // 删除期间被重新登记的 Key 到期时间已更新，不移除
+                batch.forEach(key -> pending.computeIfPresent(key, (k, dueAt) -> dueAt <= System.currentTimeMillis() ? null : dueAt));
+                deletedCounter.increment(batch.size());
+            } catch (Exception e) {
+                // 保留在等待表中，下一轮重试
+                failedCounter.increment(batch.size());
+                log.warn("批量删除缓存失败, 下一轮重试: {} 个 Key, {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        // 停机前把尚未到期的 Key 也删除掉
+        deleteInBatches(new ArrayList<>(pending.keySet()));
+    }
+}
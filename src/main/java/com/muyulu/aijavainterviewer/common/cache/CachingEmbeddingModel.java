@@ -0,0 +1,242 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBuckets;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 查询向量缓存（EmbeddingModel 装饰器）
+ * 对 embed(String) / embed(List&lt;String&gt;) 的查询文本做缓存：文本经 NFKC 规范化、合并空白后取 SHA-256 作为 Key，
+ * 本地按字节数限制的 Caffeine LRU 保存 float[]，可选的 Redis 二级缓存以小端 float32 二进制保存（embedding:{模型}:{hash}）。
+ * 文档入库（embed(Document) 等）和带自定义参数的 call 直接透传，不缓存
+ */
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EmbeddingModel delegate;
+    private final RedissonClient redissonClient;
+    private final String keyPrefix;
+    private final Duration redisTtl;
+    private final Cache<String, float[]> localCache;
+
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter missCounter;
+    private final Counter savedMillisCounter;
+    private final Timer remoteTimer;
+    /**
+     * 单条文本远程向量化耗时的指数加权平均（毫秒），用于估算命中缓存节省的时间
+     */
+    private volatile double remoteLatencyEwmaMillis;
+
+    /**
+     * @param delegate 实际的向量模型
+     * @param redissonClient Redis 客户端，为 null 时只使用本地缓存
+     * @param modelName 模型标识（模型名 + 维度），不同模型的向量互不复用
+     * @param localMaxBytes 本地缓存最大字节数
+     * @param redisTtl Redis 缓存过期时间
+     * @param meterRegistry 指标
+     */
+    public CachingEmbeddingModel(EmbeddingModel delegate, RedissonClient redissonClient, String modelName,
+                                 long localMaxBytes, Duration redisTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.redissonClient = redissonClient;
+        this.keyPrefix = RedisKeyConstant.EMBEDDING_CACHE_PREFIX + modelName + ":";
+        this.redisTtl = redisTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaxBytes)
+                .weigher((String key, float[] vector) -> vector.length * Float.BYTES + key.length())
+                .build();
+
+        this.localHitCounter = meterRegistry.counter("embedding.cache.requests", "result", "local_hit");
+        this.redisHitCounter = meterRegistry.counter("embedding.cache.requests", "result", "redis_hit");
+        this.missCounter = meterRegistry.counter("embedding.cache.requests", "result", "miss");
+        this.savedMillisCounter = meterRegistry.counter("embedding.cache.saved.latency.ms");
+        this.remoteTimer = Timer.builder("embedding.remote.latency")
+                .description("远程向量化耗时（按批）")
+                .register(meterRegistry);
+        Gauge.builder("embedding.cache.local.size", localCache, Cache::estimatedSize)
+                .description("本地缓存的向量数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return embed(List.of(text)).get(0);
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        float[][] results = new float[texts.size()][];
+        // 未命中本地缓存的 Key -> 在 texts 中的下标（相同文本只向量化一次）
+        Map<String, List<Integer>> misses = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String key = key(texts.get(i));
+            float[] cached = localCache.getIfPresent(key);
+            if (cached != null) {
+                localHitCounter.increment();
+                recordSaved();
+                results[i] = cached;
+            } else {
+                misses.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+        if (misses.isEmpty()) {
+            return List.of(results);
+        }
+
+        Map<String, float[]> fromRedis = readRedis(misses.keySet());
+        fromRedis.forEach((key, vector) -> {
+            redisHitCounter.increment();
+            recordSaved();
+            localCache.put(key, vector);
+            misses.remove(key).forEach(index -> results[index] = vector);
+        });
+        if (misses.isEmpty()) {
+            return List.of(results);
+        }
+
+        List<String> keys = new ArrayList<>(misses.keySet());
+        List<String> missTexts = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            missTexts.add(texts.get(misses.get(key).get(0)));
+        }
+        missCounter.increment(keys.size());
+        long startNanos = System.nanoTime();
+        List<float[]> vectors = delegate.embed(missTexts);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        remoteTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        recordRemoteLatency(TimeUnit.NANOSECONDS.toMillis(elapsedNanos) / (double) keys.size());
+
+        Map<String, float[]> toStore = new HashMap<>(keys.size() * 2);
+        for (int i = 0; i < keys.size(); i++) {
+            float[] vector = vectors.get(i);
+            String key = keys.get(i);
+            localCache.put(key, vector);
+            toStore.put(key, vector);
+            misses.get(key).forEach(index -> results[index] = vector);
+        }
+        writeRedis(toStore);
+        return List.of(results);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return delegate.call(request);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return delegate.embed(document);
+    }
+
+    @Override
+    public List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
+        return delegate.embed(documents, options, batchingStrategy);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    /**
+     * 规范化文本后计算缓存 Key：全角/半角统一、首尾空白去除、连续空白合并为一个空格
+     */
+    String key(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).strip();
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ");
+        return keyPrefix + DigestUtil.sha256Hex(normalized);
+    }
+
+    private Map<String, float[]> readRedis(Iterable<String> keys) {
+        Map<String, float[]> vectors = new HashMap<>();
+        if (redissonClient == null) {
+            return vectors;
+        }
+        try {
+            List<String> keyList = new ArrayList<>();
+            keys.forEach(keyList::add);
+            RBuckets buckets = redissonClient.getBuckets(ByteArrayCodec.INSTANCE);
+            Map<String, byte[]> values = buckets.get(keyList.toArray(new String[0]));
+            values.forEach((key, bytes) -> {
+                if (bytes != null && bytes.length > 0 && bytes.length % Float.BYTES == 0) {
+                    vectors.put(key, decode(bytes));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("读取向量缓存失败: {}", e.getMessage());
+        }
+        return vectors;
+    }
+
+    private void writeRedis(Map<String, float[]> vectors) {
+        if (redissonClient == null || vectors.isEmpty()) {
+            return;
+        }
+        try {
+            // 异步写入，不增加本次请求的耗时
+            vectors.forEach((key, vector) -> redissonClient.getBucket(key, ByteArrayCodec.INSTANCE)
+                    .setAsync(encode(vector), redisTtl.toMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        log.warn("写入向量缓存失败: {}", e.getMessage());
+                        return null;
+                    }));
+        } catch (Exception e) {
+            log.warn("写入向量缓存失败: {}", e.getMessage());
+        }
+    }
+
+    private void recordRemoteLatency(double millisPerText) {
+        double current = remoteLatencyEwmaMillis;
+        remoteLatencyEwmaMillis = current == 0 ? millisPerText : current * 0.9 + millisPerText * 0.1;
+    }
+
+    private void recordSaved() {
+        double saved = remoteLatencyEwmaMillis;
+        if (saved > 0) {
+            savedMillisCounter.increment(saved);
+        }
+    }
+
+    static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
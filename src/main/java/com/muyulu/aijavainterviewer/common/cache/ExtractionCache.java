@@ -0,0 +1,103 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 文件解析结果缓存
+ * 以「文件内容 SHA-256 + 提取类型」为 Key，本地 Caffeine 一级缓存 + Redis 二级缓存，
+ * 相同文件重复上传时直接返回解析结果，跳过 PDFBox/Tesseract
+ */
+@Slf4j
+@Component
+public class ExtractionCache {
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, String> localCache;
+    private final Duration redisTtl;
+
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter missCounter;
+
+    /**
+     * 缓存未命中时执行的解析逻辑
+     */
+    @FunctionalInterface
+    public interface Loader {
+        String load() throws IOException;
+    }
+
+    public ExtractionCache(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${extraction.cache.local-max-chars:20000000}") long localMaxChars,
+            @Value("${extraction.cache.local-ttl-minutes:30}") long localTtlMinutes,
+            @Value("${extraction.cache.redis-ttl-hours:24}") long redisTtlHours
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.redisTtl = Duration.ofHours(redisTtlHours);
+        // 按文本字符数限制本地缓存总大小
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaxChars)
+                .weigher((String key, String value) -> value.length())
+                .expireAfterWrite(Duration.ofMinutes(localTtlMinutes))
+                .build();
+
+        this.localHitCounter = meterRegistry.counter("extraction.cache.requests", "result", "local_hit");
+        this.redisHitCounter = meterRegistry.counter("extraction.cache.requests", "result", "redis_hit");
+        this.missCounter = meterRegistry.counter("extraction.cache.requests", "result", "miss");
+    }
+
+    /**
+     * 读取缓存，未命中时执行解析并回填两级缓存
+     * @param contentHash 文件内容 SHA-256（十六进制）
+     * @param extractionType 提取类型
+     * @param loader 解析逻辑
+     * @return 解析结果
+     */
+    public String get(String contentHash, String extractionType, Loader loader) throws IOException {
+        String key = RedisKeyConstant.EXTRACTION_CACHE_PREFIX + extractionType + ":" + contentHash;
+
+        String cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            localHitCounter.increment();
+            log.debug("文件解析缓存命中(本地): {}", key);
+            return cached;
+        }
+
+        try {
+            cached = redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("读取文件解析缓存失败, 直接解析: {}", e.getMessage());
+        }
+        if (cached != null) {
+            redisHitCounter.increment();
+            localCache.put(key, cached);
+            log.debug("文件解析缓存命中(Redis): {}", key);
+            return cached;
+        }
+
+        missCounter.increment();
+        String content = loader.load();
+        if (content != null) {
+            localCache.put(key, content);
+            try {
+                redisTemplate.opsForValue().set(key, content, redisTtl);
+            } catch (Exception e) {
+                log.warn("写入文件解析缓存失败: {}", e.getMessage());
+            }
+        }
+        return content;
+    }
+}
@@ -0,0 +1,146 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muyulu.aijavainterviewer.common.util.TextTokenizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 面试会话级 RAG 知识片段缓存
+ * 以 chatId 为 Key 保存检索到的知识片段及其词频质心，同一场面试的后续轮次直接复用，省去向量化与向量检索；
+ * 只有简历变化，或面试官上一个问题与已缓存片段的词法相似度低于阈值（话题已偏移）时，才以该问题为焦点重新检索。
+ * 缓存只在本机，其他节点首次处理该会话时会重新检索一次
+ */
+@Slf4j
+@Component
+public class RagContextCache {
+
+    /**
+     * 实际执行检索的逻辑
+     */
+    @FunctionalInterface
+    public interface Retriever {
+        /**
+         * @param focus 检索焦点（面试官上一个问题），为 null 时只按简历检索
+         */
+        List<String> retrieve(String focus);
+    }
+
+    private record Entry(String resumeHash, List<String> fragments, Map<String, Double> centroid, String focusHash) {
+    }
+
+    private final Cache<String, Entry> sessions;
+    private final double driftThreshold;
+    private final int minQuestionTerms;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter driftCounter;
+
+    public RagContextCache(
+            MeterRegistry meterRegistry,
+            @Value("${rag.context-cache.max-size:10000}") long maxSize,
+            @Value("${rag.context-cache.idle-minutes:120}") long idleMinutes,
+            @Value("${rag.context-cache.drift-threshold:0.1}") double driftThreshold,
+            @Value("${rag.context-cache.min-question-terms:4}") int minQuestionTerms
+    ) {
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+        this.driftThreshold = driftThreshold;
+        this.minQuestionTerms = minQuestionTerms;
+
+        this.hitCounter = meterRegistry.counter("rag.context.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("rag.context.cache.requests", "result", "miss");
+        this.driftCounter = meterRegistry.counter("rag.context.cache.requests", "result", "drift_refresh");
+    }
+
+    /**
+     * 获取会话的知识片段，未缓存、简历变化或话题偏移时重新检索
+     * @param chatId 对话ID
+     * @param resumeContent 简历内容
+     * @param lastQuestion 面试官上一个问题，可为 null
+     * @param retriever 检索逻辑
+     * @return 知识片段
+     */
+    public List<String> get(String chatId, String resumeContent, String lastQuestion, Retriever retriever) {
+        String resumeHash = DigestUtil.sha256Hex(Objects.requireNonNullElse(resumeContent, ""));
+        Entry entry = sessions.getIfPresent(chatId);
+
+        String focus = null;
+        if (entry != null && entry.resumeHash().equals(resumeHash)) {
+            if (!hasDrifted(entry, lastQuestion)) {
+                hitCounter.increment();
+                return entry.fragments();
+            }
+            driftCounter.increment();
+            focus = lastQuestion;
+            log.debug("面试话题偏移, 重新检索知识片段, chatId: {}", chatId);
+        } else {
+            missCounter.increment();
+        }
+
+        List<String> fragments = retriever.retrieve(focus);
+        if (fragments.isEmpty() && entry != null && entry.resumeHash().equals(resumeHash)) {
+            // 重新检索没有结果时保留原片段，并记下该问题，避免下一轮重复检索
+            sessions.put(chatId, new Entry(resumeHash, entry.fragments(), entry.centroid(), hash(focus)));
+            return entry.fragments();
+        }
+        if (fragments.isEmpty()) {
+            // 首次检索为空（知识库未就绪或检索临时失败）不缓存，下一轮重新检索
+            sessions.invalidate(chatId);
+            return fragments;
+        }
+        sessions.put(chatId, new Entry(resumeHash, List.copyOf(fragments), centroid(fragments), hash(focus)));
+        return fragments;
+    }
+
+    /**
+     * 结束会话时删除缓存
+     */
+    public void evict(String chatId) {
+        sessions.invalidate(chatId);
+    }
+
+    /**
+     * 上一个问题与片段质心的词法相似度低于阈值即视为偏移；问题过短或已针对该问题检索过时不判定偏移
+     */
+    private boolean hasDrifted(Entry entry, String lastQuestion) {
+        if (lastQuestion == null || lastQuestion.isBlank() || entry.centroid().isEmpty()) {
+            return false;
+        }
+        if (Objects.equals(entry.focusHash(), hash(lastQuestion))) {
+            return false;
+        }
+        Map<String, Double> questionVector = TextTokenizer.normalizedVector(lastQuestion);
+        if (questionVector.size() < minQuestionTerms) {
+            return false;
+        }
+        return TextTokenizer.cosine(questionVector, entry.centroid()) < driftThreshold;
+    }
+
+    private static Map<String, Double> centroid(List<String> fragments) {
+        // 余弦相似度与长度无关，各片段归一化向量直接相加即可
+        Map<String, Double> centroid = new HashMap<>();
+        for (String fragment : fragments) {
+            TextTokenizer.normalizedVector(fragment).forEach((term, weight) -> centroid.merge(term, weight, Double::sum));
+        }
+        return centroid;
+    }
+
+    private static String hash(String text) {
+        return text == null ? null : DigestUtil.sha256Hex(text);
+    }
+}
@@ -0,0 +1,141 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import com.muyulu.aijavainterviewer.model.entity.Resume;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 简历缓存
+ * 每份简历对应一个 Redis Hash（resume:{resumeId}），data 字段存 JSON，prompt 字段存预先生成的提示词文本，
+ * 面试对话每轮只需读取 prompt 字段，不再反复序列化 Resume；过期时间取 spring.data.redis.ttl
+ */
+@Slf4j
+@Component
+public class ResumeCache {
+
+    private static final String DATA_FIELD = "data";
+    private static final String PROMPT_FIELD = "prompt";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ResumeCodec resumeCodec;
+    private final Duration ttl;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public ResumeCache(
+            StringRedisTemplate redisTemplate,
+            ResumeCodec resumeCodec,
+            MeterRegistry meterRegistry,
+            @Value("${spring.data.redis.ttl:3600}") long ttlSeconds
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.resumeCodec = resumeCodec;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+
+        this.hitCounter = meterRegistry.counter("resume.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("resume.cache.requests", "result", "miss");
+        Gauge.builder("resume.cache.hit.ratio", this, cache -> {
+                    double hits = cache.hitCounter.count();
+                    double total = hits + cache.missCounter.count();
+                    return total == 0 ? 0 : hits / total;
+                })
+                .description("简历缓存命中率")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 读取缓存的简历，未命中或读取失败时返回 null
+     */
+    public Resume get(String resumeId) {
+        String json = getField(resumeId, DATA_FIELD);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return resumeCodec.decode(json);
+        } catch (IllegalArgumentException e) {
+            log.error("缓存的简历数据无法解析, 删除缓存: {}", resumeId, e);
+            evict(resumeId);
+            return null;
+        }
+    }
+
+    /**
+     * 读取简历提示词文本，未命中或读取失败时返回 null
+     */
+    public String getPromptText(String resumeId) {
+        return getField(resumeId, PROMPT_FIELD);
+    }
+
+    /**
+     * 写入简历（同时生成提示词文本）
+     */
+    public void put(Resume resume) {
+        if (resume == null || resume.getResumeId() == null) {
+            return;
+        }
+        String key = key(resume.getResumeId());
+        try {
+            HashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+            hashOps.putAll(key, Map.of(
+                    DATA_FIELD, resumeCodec.encode(resume),
+                    PROMPT_FIELD, resumeCodec.renderPromptText(resume)
+            ));
+            redisTemplate.expire(key, ttl);
+        } catch (Exception e) {
+            log.warn("写入简历缓存失败: {}", e.getMessage());
+        }
+    }
+
+    public void evict(String resumeId) {
+        try {
+            redisTemplate.delete(key(resumeId));
+        } catch (Exception e) {
+            log.warn("删除简历缓存失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 生成提示词文本（缓存未命中、从数据库读取时使用）
+     */
+    public String renderPromptText(Resume resume) {
+        return resumeCodec.renderPromptText(resume);
+    }
+
+    /**
+     * 简历缓存 Key
+     */
+    public static String key(String resumeId) {
+        return RedisKeyConstant.RESUME_CACHE_PREFIX + resumeId;
+    }
+
+    private String getField(String resumeId, String field) {
+        if (resumeId == null) {
+            return null;
+        }
+        String value = null;
+        try {
+            HashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+            value = hashOps.get(key(resumeId), field);
+        } catch (Exception e) {
+            log.warn("读取简历缓存失败: {}", e.getMessage());
+        }
+        if (value != null) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,59 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.muyulu.aijavainterviewer.model.entity.Resume;
+import org.springframework.stereotype.Component;
+
+/**
+ * 简历缓存编解码器
+ * 统一使用 Jackson 的 JSON 编码，ObjectReader/ObjectWriter 预先绑定类型并复用，
+ * 同时负责生成面试对话使用的简历提示词文本
+ */
+@Component
+public class ResumeCodec {
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    public ResumeCodec(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(Resume.class);
+        this.reader = objectMapper.readerFor(Resume.class);
+    }
+
+    public String encode(Resume resume) {
+        try {
+            return writer.writeValueAsString(resume);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("简历序列化失败: " + resume.getResumeId(), e);
+        }
+    }
+
+    public Resume decode(String json) {
+        try {
+            return reader.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("简历反序列化失败", e);
+        }
+    }
+
+    /**
+     * 生成发给大模型的简历文本，只包含三段内容，不含 id、时间等字段
+     */
+    public String renderPromptText(Resume resume) {
+        StringBuilder text = new StringBuilder();
+        appendSection(text, "专业知识", resume.getProfessionalKnowledge());
+        appendSection(text, "项目经验", resume.getProjectExperience());
+        appendSection(text, "实习经验", resume.getInternshipExperience());
+        return text.toString();
+    }
+
+    private void appendSection(StringBuilder text, String title, String content) {
+        if (content == null || content.isBlank()) {
+            return;
+        }
+        text.append("【").append(title).append("】\n").append(content.strip()).append("\n\n");
+    }
+}
@@ -0,0 +1,134 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 简历技术关键词缓存
+ * 以「发给大模型的简历文本 SHA-256」为 Key，本地 Caffeine 一级缓存 + Redis 二级缓存（resume_keywords:{hash}），
+ * 简历不变时每轮对话不再重复调用大模型提取关键词；同一简历的并发提取在本机合并为一次调用
+ */
+@Slf4j
+@Component
+public class ResumeKeywordCache {
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, String> localCache;
+    private final Duration redisTtl;
+
+    /**
+     * 正在提取的简历 hash -> 提取结果
+     */
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter missCounter;
+
+    public ResumeKeywordCache(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${rag.keyword-extraction.cache.local-max-size:10000}") long localMaxSize,
+            @Value("${rag.keyword-extraction.cache.local-ttl-minutes:60}") long localTtlMinutes,
+            @Value("${rag.keyword-extraction.cache.redis-ttl-hours:24}") long redisTtlHours
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.redisTtl = Duration.ofHours(redisTtlHours);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(localTtlMinutes))
+                .build();
+
+        this.localHitCounter = meterRegistry.counter("resume.keywords.cache.requests", "result", "local_hit");
+        this.redisHitCounter = meterRegistry.counter("resume.keywords.cache.requests", "result", "redis_hit");
+        this.missCounter = meterRegistry.counter("resume.keywords.cache.requests", "result", "miss");
+    }
+
+    /**
+     * 读取缓存，未命中时执行提取并回填两级缓存；提取结果为空时不缓存
+     * @param resumeContent 发给大模型的简历文本
+     * @param loader 提取逻辑
+     * @return 技术关键词
+     */
+    public String get(String resumeContent, Supplier<String> loader) {
+        String contentHash = DigestUtil.sha256Hex(resumeContent);
+
+        String cached = localCache.getIfPresent(contentHash);
+        if (cached != null) {
+            localHitCounter.increment();
+            return cached;
+        }
+
+        cached = readRedis(contentHash);
+        if (cached != null) {
+            redisHitCounter.increment();
+            localCache.put(contentHash, cached);
+            return cached;
+        }
+
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(contentHash, future);
+        if (existing != null) {
+            // 同一简历正在提取（如上传后的预热），等待其结果
+            return join(existing);
+        }
+        missCounter.increment();
+        try {
+            String keywords = loader.get();
+            if (keywords != null && !keywords.isBlank()) {
+                localCache.put(contentHash, keywords);
+                writeRedis(contentHash, keywords);
+            }
+            future.complete(keywords);
+            return keywords;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(contentHash, future);
+        }
+    }
+
+    private String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String readRedis(String contentHash) {
+        try {
+            return redisTemplate.opsForValue().get(RedisKeyConstant.RESUME_KEYWORDS_PREFIX + contentHash);
+        } catch (Exception e) {
+            log.warn("读取简历关键词缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String contentHash, String keywords) {
+        try {
+            redisTemplate.opsForValue().set(RedisKeyConstant.RESUME_KEYWORDS_PREFIX + contentHash, keywords, redisTtl);
+        } catch (Exception e) {
+            log.warn("写入简历关键词缓存失败: {}", e.getMessage());
+        }
+    }
+}
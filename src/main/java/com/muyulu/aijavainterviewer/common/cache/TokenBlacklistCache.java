@@ -0,0 +1,193 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token 黑名单本地近缓存
+ * 本地保存已注销 Token 的 SHA-256 及其过期时间，条目在 Token 过期时自动移除；
+ * 退出登录时写入 Redis 并通过 Redisson RTopic 广播，各节点收到消息后更新本地缓存，
+ * 绝大多数请求无需访问 Redis。断线期间的消息会丢失，因此每次（重新）订阅成功后立即全量对账，并定期兜底对账；
+ * 首次同步完成前仍直接查询 Redis
+ */
+@Slf4j
+@Component
+public class TokenBlacklistCache {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RTopic topic;
+    private final long resyncIntervalSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Token SHA-256 -> 过期时间（毫秒时间戳）
+     */
+    private final Cache<String, Long> revoked;
+
+    private final Counter localHitCounter;
+    private final Counter redisLookupCounter;
+
+    private volatile boolean ready;
+    private int listenerId = -1;
+    private int statusListenerId = -1;
+
+    public TokenBlacklistCache(
+            StringRedisTemplate redisTemplate,
+            RedissonClient redissonClient,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.blacklist.resync-interval-seconds:60}") long resyncIntervalSeconds
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.topic = redissonClient.getTopic(RedisKeyConstant.TOKEN_BLACKLIST_TOPIC, StringCodec.INSTANCE);
+        this.resyncIntervalSeconds = resyncIntervalSeconds;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-blacklist-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String key, Long expiresAt, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Long expiresAt, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, expiresAt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.localHitCounter = meterRegistry.counter("token.blacklist.lookups", "source", "local");
+        this.redisLookupCounter = meterRegistry.counter("token.blacklist.lookups", "source", "redis");
+        Gauge.builder("token.blacklist.local.size", revoked, cache -> cache.estimatedSize())
+                .description("本地缓存的已注销 Token 数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        // 先订阅再全量同步，避免同步期间发布的消息丢失
+        listenerId = topic.addListener(String.class, (channel, message) -> onMessage(message));
+        // 断线重连后 Redisson 会自动重新订阅，断线期间发布的消息需要通过对账补齐
+        statusListenerId = topic.addListener(new BaseStatusListener() {
+            @Override
+            public void onSubscribe(String channel) {
+                scheduler.execute(TokenBlacklistCache.this::resync);
+            }
+        });
+        scheduler.execute(this::resync);
+        if (resyncIntervalSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::resync, resyncIntervalSeconds, resyncIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Token 是否已注销
+     */
+    public boolean isRevoked(String token) {
+        if (!ready) {
+            redisLookupCounter.increment();
+            return Boolean.TRUE.equals(redisTemplate.hasKey(RedisKeyConstant.TOKEN_BLACKLIST_PREFIX + token));
+        }
+        localHitCounter.increment();
+        return revoked.getIfPresent(DigestUtil.sha256Hex(token)) != null;
+    }
+
+    /**
+     * 登记已注销的 Token 并通知其他节点（调用方负责写入 Redis 黑名单 Key）
+     * @param token JWT Token
+     * @param expiresAtMillis Token 过期时间
+     */
+    public void revoke(String token, long expiresAtMillis) {
+        String tokenHash = DigestUtil.sha256Hex(token);
+        revoked.put(tokenHash, expiresAtMillis);
+        try {
+            topic.publish(tokenHash + ":" + expiresAtMillis);
+        } catch (Exception e) {
+            // 其他节点在下一次对账时补齐
+            log.warn("广播 Token 注销消息失败: {}", e.getMessage());
+        }
+    }
+
+    private void onMessage(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        try {
+            revoked.put(message.substring(0, separator), Long.parseLong(message.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("忽略格式错误的 Token 注销消息: {}", message);
+        }
+    }
+
+    /**
+     * 扫描 Redis 中的黑名单 Key，补齐本地缓存
+     */
+    private void resync() {
+        long startTime = System.currentTimeMillis();
+        int count = 0;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisKeyConstant.TOKEN_BLACKLIST_PREFIX + "*")
+                .count(500)
+                .build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                Long ttlMillis = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+                if (ttlMillis == null || ttlMillis <= 0) {
+                    continue;
+                }
+                String token = key.substring(RedisKeyConstant.TOKEN_BLACKLIST_PREFIX.length());
+                revoked.put(DigestUtil.sha256Hex(token), System.currentTimeMillis() + ttlMillis);
+                count++;
+            }
+            if (!ready) {
+                ready = true;
+                log.info("Token 黑名单本地缓存已就绪, {} 条, 耗时 {} ms", count, System.currentTimeMillis() - startTime);
+            }
+        } catch (Exception e) {
+            log.warn("同步 Token 黑名单失败: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (listenerId != -1) {
+            topic.removeListener(listenerId);
+        }
+        if (statusListenerId != -1) {
+            topic.removeListener(statusListenerId);
+        }
+    }
+}
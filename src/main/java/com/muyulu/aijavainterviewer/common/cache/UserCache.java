@@ -0,0 +1,199 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import com.muyulu.aijavainterviewer.model.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 用户信息缓存
+ * 本地 Caffeine 一级缓存 + Redis 二级缓存（user:{userId}），均不保存密码字段；
+ * 用户信息更新时在事务提交后删除 Redis 缓存（含延时二次删除），并通过 RTopic 通知各节点删除本地缓存。
+ * 返回的都是副本，调用方修改不会影响缓存
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final RTopic evictTopic;
+    private final Cache<Long, User> localCache;
+    private final Duration redisTtl;
+
+    private final Counter memoHitCounter;
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter dbLoadCounter;
+
+    private int listenerId = -1;
+
+    public UserCache(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            CacheInvalidator cacheInvalidator,
+            RedissonClient redissonClient,
+            MeterRegistry meterRegistry,
+            @Value("${user.cache.local-max-size:10000}") long localMaxSize,
+            @Value("${user.cache.local-ttl-seconds:60}") long localTtlSeconds,
+            @Value("${user.cache.redis-ttl-seconds:3600}") long redisTtlSeconds
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.cacheInvalidator = cacheInvalidator;
+        this.evictTopic = redissonClient.getTopic(RedisKeyConstant.USER_CACHE_EVICT_TOPIC, StringCodec.INSTANCE);
+        this.redisTtl = Duration.ofSeconds(redisTtlSeconds);
+        // 本地缓存过期时间较短，兜底丢失的失效广播
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+
+        this.memoHitCounter = meterRegistry.counter("user.cache.requests", "result", "request_memo");
+        this.localHitCounter = meterRegistry.counter("user.cache.requests", "result", "local_hit");
+        this.redisHitCounter = meterRegistry.counter("user.cache.requests", "result", "redis_hit");
+        this.dbLoadCounter = meterRegistry.counter("user.cache.requests", "result", "db_load");
+        Gauge.builder("user.cache.hit.ratio", this, cache -> {
+                    double cached = cache.localHitCounter.count() + cache.redisHitCounter.count();
+                    double total = cached + cache.dbLoadCounter.count();
+                    return total == 0 ? 0 : cached / total;
+                })
+                .description("用户缓存命中率（本地 + Redis）")
+                .register(meterRegistry);
+        Gauge.builder("user.cache.db.avoided.ratio", this, cache -> {
+                    double total = cache.memoHitCounter.count() + cache.localHitCounter.count()
+                            + cache.redisHitCounter.count() + cache.dbLoadCounter.count();
+                    return total == 0 ? 0 : 1 - cache.dbLoadCounter.count() / total;
+                })
+                .description("获取登录用户时免于查库的比例（含请求内复用）")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerId = evictTopic.addListener(String.class, (channel, message) -> {
+            try {
+                localCache.invalidate(Long.valueOf(message));
+            } catch (NumberFormatException e) {
+                log.warn("忽略格式错误的用户缓存失效消息: {}", message);
+            }
+        });
+    }
+
+    /**
+     * 读取用户，依次查本地缓存、Redis，都未命中时调用 loader 查库并回填
+     * @param userId 用户ID
+     * @param loader 查库逻辑
+     * @return 用户副本，不存在时返回 null
+     */
+    public User get(Long userId, Function<Long, User> loader) {
+        User cached = localCache.getIfPresent(userId);
+        if (cached != null) {
+            localHitCounter.increment();
+            return copy(cached);
+        }
+
+        cached = readRedis(userId);
+        if (cached != null) {
+            redisHitCounter.increment();
+            localCache.put(userId, cached);
+            return copy(cached);
+        }
+
+        dbLoadCounter.increment();
+        User user = loader.apply(userId);
+        if (user == null) {
+            return null;
+        }
+        User sanitized = copy(user);
+        localCache.put(userId, sanitized);
+        writeRedis(sanitized);
+        return copy(sanitized);
+    }
+
+    /**
+     * 记录一次请求内复用（同一请求第二次获取登录用户）
+     */
+    public void recordMemoHit() {
+        memoHitCounter.increment();
+    }
+
+    /**
+     * 用户信息变更后调用：本地缓存立即删除，事务提交后删除 Redis 缓存并通知其他节点
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        localCache.invalidate(userId);
+        cacheInvalidator.afterCommit(() -> {
+            // 提交前可能已有并发请求回填旧数据，提交后本地再删一次
+            localCache.invalidate(userId);
+            cacheInvalidator.invalidate(key(userId));
+            try {
+                evictTopic.publish(String.valueOf(userId));
+            } catch (Exception e) {
+                log.warn("广播用户缓存失效消息失败: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 用户缓存 Key
+     */
+    public static String key(Long userId) {
+        return RedisKeyConstant.USER_CACHE_PREFIX + userId;
+    }
+
+    private User readRedis(Long userId) {
+        try {
+            String json = redisTemplate.opsForValue().get(key(userId));
+            return json != null ? objectMapper.readValue(json, User.class) : null;
+        } catch (Exception e) {
+            log.warn("读取用户缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(User user) {
+        try {
+            redisTemplate.opsForValue().set(key(user.getId()), objectMapper.writeValueAsString(user), redisTtl);
+        } catch (Exception e) {
+            log.warn("写入用户缓存失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 复制用户信息并去掉密码
+     */
+    private User copy(User user) {
+        User copy = new User();
+        BeanUtils.copyProperties(user, copy, "password");
+        return copy;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (listenerId != -1) {
+            evictTopic.removeListener(listenerId);
+        }
+    }
+}
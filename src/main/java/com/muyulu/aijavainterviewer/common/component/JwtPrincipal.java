@@ -0,0 +1,21 @@
+package com.muyulu.aijavainterviewer.common.component;
+
+/**
+ * 解析后的 Token 身份信息（不可变）
+ * @param userId 用户ID
+ * @param username 用户名
+ * @param expiresAtMillis 过期时间（毫秒时间戳）
+ */
+public record JwtPrincipal(Long userId, String username, long expiresAtMillis) {
+
+    /**
+     * 剩余有效时间（毫秒），已过期时返回 0
+     */
+    public long remainingMillis() {
+        return Math.max(0, expiresAtMillis - System.currentTimeMillis());
+    }
+
+    public boolean isExpired() {
+        return expiresAtMillis <= System.currentTimeMillis();
+    }
+}
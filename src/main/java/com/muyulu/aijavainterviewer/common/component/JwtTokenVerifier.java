@@ -0,0 +1,115 @@
+package com.muyulu.aijavainterviewer.common.component;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.muyulu.aijavainterviewer.common.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token 校验组件
+ * 每个 Token 只解析、验签一次，得到不可变的 JwtPrincipal；结果按 Token 的 SHA-256 缓存在本地，
+ * 缓存有效期不超过 Token 本身的剩余有效期，校验失败的 Token 不缓存
+ */
+@Slf4j
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, JwtPrincipal> principalCache;
+    private final long maxTtlNanos;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter rejectedCounter;
+
+    public JwtTokenVerifier(
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.maxTtlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        return Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(principal.remainingMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, principal, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.hitCounter = meterRegistry.counter("jwt.verify.requests", "result", "cache_hit");
+        this.missCounter = meterRegistry.counter("jwt.verify.requests", "result", "parsed");
+        this.rejectedCounter = meterRegistry.counter("jwt.verify.requests", "result", "rejected");
+    }
+
+    /**
+     * 校验 Token 并返回身份信息
+     * @param token JWT Token
+     * @return 身份信息，Token 无效或已过期时返回 null
+     */
+    public JwtPrincipal verify(String token) {
+        String cacheKey = DigestUtil.sha256Hex(token);
+        JwtPrincipal cached = principalCache.getIfPresent(cacheKey);
+        if (cached != null && !cached.isExpired()) {
+            hitCounter.increment();
+            return cached;
+        }
+
+        JwtPrincipal principal = parse(token);
+        if (principal == null) {
+            rejectedCounter.increment();
+            return null;
+        }
+        missCounter.increment();
+        principalCache.put(cacheKey, principal);
+        return principal;
+    }
+
+    /**
+     * 移除 Token 的缓存（退出登录时调用）
+     */
+    public void evict(String token) {
+        principalCache.invalidate(DigestUtil.sha256Hex(token));
+    }
+
+    private JwtPrincipal parse(String token) {
+        try {
+            Claims claims = jwtUtil.parseToken(token);
+            Date expiration = claims.getExpiration();
+            Object userId = claims.get("userId");
+            Object username = claims.get("username");
+            if (expiration == null || userId == null || username == null) {
+                return null;
+            }
+            JwtPrincipal principal = new JwtPrincipal(
+                    Long.valueOf(userId.toString()), username.toString(), expiration.getTime());
+            return principal.isExpired() ? null : principal;
+        } catch (Exception e) {
+            log.debug("Token 校验失败: {}", e.getMessage());
+            return null;
+        }
+    }
+}
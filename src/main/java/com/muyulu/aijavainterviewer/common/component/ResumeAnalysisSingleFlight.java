@@ -0,0 +1,181 @@
+package com.muyulu.aijavainterviewer.common.component;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import com.muyulu.aijavainterviewer.common.exception.ResumeException;
+import com.muyulu.aijavainterviewer.model.vo.ResumeVo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 简历分析请求合并（single-flight）
+ * 以简历文本 SHA-256 为 Key：同一实例内并发的相同请求共享同一个进行中的 CompletableFuture；
+ * 开启分布式模式后，再用 Redisson 锁保证多实例间只有一个节点调用大模型，其余节点等锁后读取 Redis 中的结果
+ */
+@Slf4j
+@Component
+public class ResumeAnalysisSingleFlight {
+
+    /**
+     * 实际的分析逻辑
+     */
+    @FunctionalInterface
+    public interface Loader {
+        ResumeVo load() throws GraphRunnerException;
+    }
+
+    private final ConcurrentHashMap<String, CompletableFuture<ResumeVo>> inFlight = new ConcurrentHashMap<>();
+
+    private final RedissonClient redissonClient;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean distributed;
+    private final long lockWaitSeconds;
+    private final Duration resultTtl;
+
+    private final Counter localCoalescedCounter;
+    private final Counter distributedCoalescedCounter;
+
+    public ResumeAnalysisSingleFlight(
+            RedissonClient redissonClient,
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${resume.analysis.distributed:false}") boolean distributed,
+            @Value("${resume.analysis.lock-wait-seconds:120}") long lockWaitSeconds,
+            @Value("${resume.analysis.result-ttl-minutes:10}") long resultTtlMinutes
+    ) {
+        this.redissonClient = redissonClient;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.distributed = distributed;
+        this.lockWaitSeconds = lockWaitSeconds;
+        this.resultTtl = Duration.ofMinutes(resultTtlMinutes);
+        this.localCoalescedCounter = meterRegistry.counter("resume.analysis.coalesced", "scope", "local");
+        this.distributedCoalescedCounter = meterRegistry.counter("resume.analysis.coalesced", "scope", "distributed");
+    }
+
+    /**
+     * 执行分析，相同简历文本的并发请求只会触发一次 loader
+     * @param resumeContent 简历文本
+     * @param loader 分析逻辑
+     * @return 分析结果（并发调用方共享同一个对象，不要修改）
+     */
+    public ResumeVo analyze(String resumeContent, Loader loader) throws GraphRunnerException {
+        String contentHash = DigestUtil.sha256Hex(resumeContent);
+        CompletableFuture<ResumeVo> created = new CompletableFuture<>();
+        CompletableFuture<ResumeVo> existing = inFlight.putIfAbsent(contentHash, created);
+        if (existing != null) {
+            localCoalescedCounter.increment();
+            log.info("相同简历正在分析中, 等待已有结果: {}", contentHash);
+            return await(existing);
+        }
+
+        try {
+            ResumeVo resumeVo = distributed ? analyzeDistributed(contentHash, loader) : loader.load();
+            created.complete(resumeVo);
+            return resumeVo;
+        } catch (Throwable e) {
+            // 失败同样通知等待方，避免其永久阻塞
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(contentHash, created);
+        }
+    }
+
+    /**
+     * 分布式模式：持锁节点调用大模型并把结果写入 Redis，等锁的节点拿到锁后直接读取结果
+     */
+    private ResumeVo analyzeDistributed(String contentHash, Loader loader) throws GraphRunnerException {
+        String resultKey = RedisKeyConstant.RESUME_ANALYSIS_RESULT_PREFIX + contentHash;
+        ResumeVo cached = readResult(resultKey);
+        if (cached != null) {
+            distributedCoalescedCounter.increment();
+            return cached;
+        }
+
+        RLock lock = redissonClient.getLock(RedisKeyConstant.RESUME_ANALYSIS_LOCK_PREFIX + contentHash);
+        boolean locked;
+        try {
+            // 不指定租期，由 Redisson 看门狗在分析期间自动续期
+            locked = lock.tryLock(lockWaitSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ResumeException.parseFailed("等待简历分析被中断");
+        }
+        if (!locked) {
+            log.warn("等待简历分析锁超时({}s), 直接分析: {}", lockWaitSeconds, contentHash);
+            return loader.load();
+        }
+
+        try {
+            cached = readResult(resultKey);
+            if (cached != null) {
+                distributedCoalescedCounter.increment();
+                log.info("其他节点已完成相同简历的分析: {}", contentHash);
+                return cached;
+            }
+            ResumeVo resumeVo = loader.load();
+            writeResult(resultKey, resumeVo);
+            return resumeVo;
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ResumeVo await(CompletableFuture<ResumeVo> future) throws GraphRunnerException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ResumeException.parseFailed("等待简历分析被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GraphRunnerException graphRunnerException) {
+                throw graphRunnerException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ResumeException.parseFailed(cause.getMessage());
+        }
+    }
+
+    private ResumeVo readResult(String key) {
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            return json != null ? objectMapper.readValue(json, ResumeVo.class) : null;
+        } catch (Exception e) {
+            log.warn("读取简历分析结果失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeResult(String key, ResumeVo resumeVo) {
+        if (resumeVo == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(resumeVo), resultTtl);
+        } catch (Exception e) {
+            log.warn("写入简历分析结果失败: {}", e.getMessage());
+        }
+    }
+}
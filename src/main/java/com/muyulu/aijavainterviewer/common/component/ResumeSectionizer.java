@@ -0,0 +1,144 @@
+package com.muyulu.aijavainterviewer.common.component;
+
+import com.muyulu.aijavainterviewer.model.vo.ResumeVo;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 简历分段器（基于规则，不调用大模型）
+ * 按常见的中英文小标题把简历文本切分为专业技能、项目经验、实习经历三段，
+ * 并给出置信度；置信度不足时由调用方回退到 ResumeAgent
+ */
+@Component
+public class ResumeSectionizer {
+
+    /**
+     * 简历段落类型，OTHER 表示教育背景、自我评价等不需要提取的段落
+     */
+    public enum Section { SKILLS, PROJECTS, INTERNSHIP, OTHER }
+
+    /**
+     * 分段结果
+     * @param sections 段落类型 -> 段落内容（同类多段按出现顺序拼接）
+     * @param confidence 置信度（0-1）
+     */
+    public record Result(Map<Section, String> sections, double confidence) {
+
+        public ResumeVo toResumeVo() {
+            ResumeVo resumeVo = new ResumeVo();
+            resumeVo.setProfessionalKnowledge(sections.getOrDefault(Section.SKILLS, ""));
+            resumeVo.setProjectExperience(sections.getOrDefault(Section.PROJECTS, ""));
+            resumeVo.setInternshipExperience(sections.getOrDefault(Section.INTERNSHIP, ""));
+            LocalDateTime now = LocalDateTime.now();
+            resumeVo.setCreateTime(now);
+            resumeVo.setUpdateTime(now);
+            return resumeVo;
+        }
+    }
+
+    /**
+     * 小标题行：可选的装饰符/序号 + 标题关键词 + 可选的右括号/冒号，冒号后允许直接跟正文
+     */
+    private static final Pattern HEADING_PATTERN = Pattern.compile(
+            "^[\\s#>*\\-■●◆◇▌▍|【\\[]*"
+                    + "(?:[一二三四五六七八九十]+[、.．]|\\d{1,2}[、.．)）])?\\s*"
+                    + "(?:"
+                    + "(?<skills>专业技能|专业知识|技能特长|个人技能|技能清单|技术栈|技术能力|掌握技能|技能|"
+                    + "(?:professional\\s+|technical\\s+|core\\s+)?skills(?:\\s*(?:&|and)\\s*\\w+)?|tech(?:nical)?\\s+stack|core\\s+competencies)"
+                    + "|(?<projects>项目经验|项目经历|项目实践|项目实战|项目|"
+                    + "(?:personal\\s+|selected\\s+)?projects?(?:\\s+experience)?)"
+                    + "|(?<internship>实习经历|实习经验|工作经历|工作经验|实习|"
+                    + "internships?(?:\\s+experience)?|work\\s+experience|professional\\s+experience|employment(?:\\s+history)?|experience)"
+                    + "|(?<other>教育背景|教育经历|个人信息|基本信息|自我评价|个人评价|个人总结|荣誉奖项|获奖情况|获奖经历|证书|资格证书|"
+                    + "校园经历|在校经历|求职意向|联系方式|兴趣爱好|"
+                    + "education|summary|profile|awards|honors|certifications?|contact|objective|interests)"
+                    + ")"
+                    + "\\s*[】\\]]?\\s*(?:[:：]\\s*(?<rest>.*))?$",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * 单段内容少于该字符数时视为空段
+     */
+    private static final int MIN_SECTION_CHARS = 20;
+
+    /**
+     * 各段对置信度的权重：应届生可能没有实习经历，因此权重较低
+     */
+    private static final double SKILLS_WEIGHT = 0.4;
+    private static final double PROJECTS_WEIGHT = 0.4;
+    private static final double INTERNSHIP_WEIGHT = 0.2;
+
+    /**
+     * 识别到的段落至少应覆盖全文的比例，覆盖不足说明大部分内容没有被标题切分
+     */
+    private static final double MIN_COVERAGE = 0.6;
+
+    /**
+     * 切分简历文本
+     * @param resumeContent 简历文本
+     * @return 分段结果与置信度
+     */
+    public Result sectionize(String resumeContent) {
+        Map<Section, StringBuilder> builders = new EnumMap<>(Section.class);
+        if (resumeContent == null || resumeContent.isBlank()) {
+            return new Result(Map.of(), 0);
+        }
+
+        Section current = null;
+        long totalChars = 0;
+        long sectionChars = 0;
+        for (String rawLine : resumeContent.split("\\R")) {
+            String line = rawLine.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            Matcher matcher = HEADING_PATTERN.matcher(line);
+            if (matcher.matches()) {
+                current = headingSection(matcher);
+                String rest = matcher.group("rest");
+                if (rest == null || rest.isBlank()) {
+                    continue;
+                }
+                line = rest.strip();
+            }
+            totalChars += line.length();
+            if (current != null) {
+                sectionChars += line.length();
+                builders.computeIfAbsent(current, key -> new StringBuilder()).append(line).append('\n');
+            }
+        }
+
+        Map<Section, String> sections = new EnumMap<>(Section.class);
+        builders.forEach((section, builder) -> sections.put(section, builder.toString().strip()));
+
+        double confidence = weight(sections, Section.SKILLS, SKILLS_WEIGHT)
+                + weight(sections, Section.PROJECTS, PROJECTS_WEIGHT)
+                + weight(sections, Section.INTERNSHIP, INTERNSHIP_WEIGHT);
+        double coverage = totalChars == 0 ? 0 : (double) sectionChars / totalChars;
+        if (coverage < MIN_COVERAGE) {
+            confidence *= coverage / MIN_COVERAGE;
+        }
+        return new Result(sections, confidence);
+    }
+
+    private Section headingSection(Matcher matcher) {
+        if (matcher.group("skills") != null) {
+            return Section.SKILLS;
+        } else if (matcher.group("projects") != null) {
+            return Section.PROJECTS;
+        } else if (matcher.group("internship") != null) {
+            return Section.INTERNSHIP;
+        }
+        return Section.OTHER;
+    }
+
+    private double weight(Map<Section, String> sections, Section section, double weight) {
+        String content = sections.get(section);
+        return content != null && content.length() >= MIN_SECTION_CHARS ? weight : 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.muyulu.aijavainterviewer.common.component;
+
+import com.muyulu.aijavainterviewer.model.enums.VectorStoreState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * 知识库向量库健康检查（/actuator/health 中的 vectorStore）
+ * 只读取 VectorStoreReadiness 维护的状态，不访问数据库；
+ * 向量库不可用时面试仍可进行（不使用 RAG），因此未加载/加载中不报告为 DOWN；
+ * 自定义状态 LOADING/DEGRADED 在全局聚合中排在 UP 之后，不改变 /actuator/health 的整体状态，
+ * 知识库状态通过 /actuator/health/rag 分组单独查看（见 management.endpoint.health）
+ */
+@Component
+@RequiredArgsConstructor
+public class VectorStoreHealthIndicator implements HealthIndicator {
+
+    private static final Status LOADING = new Status("LOADING", "正在加载知识库文档");
+    private static final Status DEGRADED = new Status("DEGRADED", "知识库加载不完整或状态检查失败");
+
+    private final VectorStoreReadiness vectorStoreReadiness;
+
+    @Override
+    public Health health() {
+        VectorStoreState state = vectorStoreReadiness.getState();
+        Health.Builder builder = switch (state) {
+            case READY -> Health.up();
+            case DEGRADED -> Health.status(DEGRADED);
+            case LOADING -> Health.status(LOADING);
+            case NOT_LOADED -> Health.unknown();
+        };
+        builder.withDetail("state", state.name());
+        if (vectorStoreReadiness.getLastCheckTime() != null) {
+            builder.withDetail("lastCheckTime", vectorStoreReadiness.getLastCheckTime().toString());
+        }
+        if (vectorStoreReadiness.getLastError() != null) {
+            builder.withDetail("lastError", vectorStoreReadiness.getLastError());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.muyulu.aijavainterviewer.common.component;
+
+import com.muyulu.aijavainterviewer.model.enums.VectorStoreState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 知识库向量库就绪状态
+ * 状态由文档加载流程维护（加载开始 -> LOADING，加载结束 -> READY / DEGRADED），
+ * 并定期用 SELECT EXISTS 复核向量表是否有数据（其他节点加载完成、表被清空等情况）。
+ * 检索前只读内存中的状态，不再每轮对话执行一次向量检索来探测
+ */
+@Slf4j
+@Component
+public class VectorStoreReadiness {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String existsSql;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<VectorStoreState>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile VectorStoreState state = VectorStoreState.NOT_LOADED;
+    /**
+     * 最近一次加载是否完整（没有失败批次）
+     */
+    private volatile boolean ingestionComplete = true;
+    private volatile Instant lastCheckTime;
+    private volatile String lastError;
+
+    public VectorStoreReadiness(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${rag.vector-store.table:public.vector_store}") String table,
+            @Value("${rag.vector-store.check-interval-seconds:60}") long checkIntervalSeconds
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.existsSql = "SELECT EXISTS (SELECT 1 FROM " + table + ")";
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vector-store-readiness");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (checkIntervalSeconds > 0) {
+            this.scheduler.scheduleWithFixedDelay(this::verify, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+        }
+
+        Gauge.builder("rag.vector.store.ready", this, readiness -> readiness.state.isServing() ? 1 : 0)
+                .description("知识库向量库是否可用于检索")
+                .register(meterRegistry);
+    }
+
+    public VectorStoreState getState() {
+        return state;
+    }
+
+    /**
+     * 是否可以检索（READY 或 DEGRADED）
+     */
+    public boolean isServing() {
+        return state.isServing();
+    }
+
+    public Instant getLastCheckTime() {
+        return lastCheckTime;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * 注册状态变更监听，注册时立即以当前状态回调一次；回调在状态变更线程中执行，耗时操作应自行异步
+     */
+    public void addListener(Consumer<VectorStoreState> listener) {
+        listeners.add(listener);
+        listener.accept(state);
+    }
+
+    /**
+     * 文档开始加载
+     */
+    public void markLoading() {
+        transition(VectorStoreState.LOADING);
+    }
+
+    /**
+     * 文档加载结束，根据向量表实际是否有数据确定状态
+     * @param complete 是否所有批次都写入成功
+     */
+    public void markLoaded(boolean complete) {
+        ingestionComplete = complete;
+        check(true);
+    }
+
+    /**
+     * 查询向量表是否有数据并更新状态；加载过程中不改变状态
+     * @return 向量表是否有数据，检查出错时返回 false
+     */
+    public boolean verify() {
+        return check(false);
+    }
+
+    private boolean check(boolean loadFinished) {
+        Boolean exists;
+        try {
+            exists = jdbcTemplate.queryForObject(existsSql, Boolean.class);
+        } catch (Exception e) {
+            lastCheckTime = Instant.now();
+            lastError = e.getMessage();
+            log.warn("检查向量库状态失败: {}", e.getMessage());
+            synchronized (this) {
+                // 之前可用或刚加载完时标记为降级，检索失败由调用方兜底
+                if (state == VectorStoreState.READY || loadFinished) {
+                    transition(VectorStoreState.DEGRADED);
+                }
+            }
+            return false;
+        }
+        lastCheckTime = Instant.now();
+        lastError = null;
+        boolean hasData = Boolean.TRUE.equals(exists);
+        synchronized (this) {
+            if (loadFinished || state != VectorStoreState.LOADING) {
+                if (!hasData) {
+                    transition(VectorStoreState.NOT_LOADED);
+                } else {
+                    transition(ingestionComplete ? VectorStoreState.READY : VectorStoreState.DEGRADED);
+                }
+            }
+        }
+        return hasData;
+    }
+
+    private synchronized void transition(VectorStoreState next) {
+        VectorStoreState previous = state;
+        if (previous != next) {
+            state = next;
+            log.info("向量库状态变更: {} -> {}", previous, next);
+            for (Consumer<VectorStoreState> listener : listeners) {
+                try {
+                    listener.accept(next);
+                } catch (Exception e) {
+                    log.warn("向量库状态监听处理失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -13,6 +13,66 @@ public interface RedisKeyConstant {
      * 面试问题池缓存前缀
      */
     String QUESTION_POOL_PREFIX = "question_pool:";
+
+    /**
+     * 文件解析结果缓存前缀（extraction:{提取类型}:{文件SHA-256}）
+     */
+    String EXTRACTION_CACHE_PREFIX = "extraction:";
+
+    /**
+     * 简历异步处理任务状态前缀（resume_job:{jobId}）
+     */
+    String RESUME_JOB_PREFIX = "resume_job:";
+
+    /**
+     * 简历分析分布式锁前缀（resume_analysis:lock:{简历文本SHA-256}）
+     */
+    String RESUME_ANALYSIS_LOCK_PREFIX = "resume_analysis:lock:";
+
+    /**
+     * 简历分析结果前缀，供等锁节点读取（resume_analysis:result:{简历文本SHA-256}）
+     */
+    String RESUME_ANALYSIS_RESULT_PREFIX = "resume_analysis:result:";
     
+    /**
+     * 简历缓存前缀（resume:{resumeId}，Hash 结构：data=简历JSON，prompt=提示词文本）
+     */
+    String RESUME_CACHE_PREFIX = "resume:";
+
+    /**
+     * 简历技术关键词缓存前缀（resume_keywords:{简历文本SHA-256}）
+     */
+    String RESUME_KEYWORDS_PREFIX = "resume_keywords:";
+
+    /**
+     * 查询向量缓存前缀（embedding:{模型}:{规范化文本SHA-256}，值为小端 float32 二进制）
+     */
+    String EMBEDDING_CACHE_PREFIX = "embedding:";
+
+    /**
+     * 简历共享布隆过滤器前缀（resume_bloom:layer:{层号}、resume_bloom:layers、resume_bloom:loaded）
+     */
+    String RESUME_BLOOM_PREFIX = "resume_bloom:";
+
+    /**
+     * Token 黑名单前缀（token:blacklist:{token}，TTL 为 Token 剩余有效期）
+     */
+    String TOKEN_BLACKLIST_PREFIX = "token:blacklist:";
+
+    /**
+     * Token 注销广播频道，消息格式：{Token SHA-256}:{过期时间毫秒}
+     */
+    String TOKEN_BLACKLIST_TOPIC = "token:blacklist:events";
+
+    /**
+     * 用户信息缓存前缀（user:{userId}）
+     */
+    String USER_CACHE_PREFIX = "user:";
+
+    /**
+     * 用户缓存失效广播频道，消息为 userId
+     */
+    String USER_CACHE_EVICT_TOPIC = "user:cache:evict";
+
     // 可继续补充其他 Redis Key
 }
@@ -3,7 +3,9 @@ package com.muyulu.aijavainterviewer.common.exception;
 import com.muyulu.aijavainterviewer.common.Result;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -22,6 +24,17 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * 处理过载异常：返回 HTTP 429 并提示重试时间
+     */
+    @ExceptionHandler(OverloadException.class)
+    public ResponseEntity<Result<?>> handleOverloadException(OverloadException e) {
+        log.warn("服务过载, 拒绝请求: {}, retryAfter={}s", e.getMessage(), e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Result.error(e.getCode(), e.getMessage()));
+    }
+
     /**
      * 处理业务异常（包括限流异常）
      */
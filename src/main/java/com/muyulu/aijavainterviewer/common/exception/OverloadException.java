@@ -0,0 +1,27 @@
+package com.muyulu.aijavainterviewer.common.exception;
+
+import lombok.Getter;
+
+/**
+ * 过载异常（返回 HTTP 429 并带 Retry-After 头）
+ */
+@Getter
+public class OverloadException extends BusinessException {
+
+    /**
+     * 建议客户端重试的等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+    public OverloadException(String message, long retryAfterSeconds) {
+        super(429, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * 大模型调用已达当前并发上限
+     */
+    public static OverloadException llmBusy(long retryAfterSeconds) {
+        return new OverloadException("AI 服务繁忙，请稍后再试", retryAfterSeconds);
+    }
+}
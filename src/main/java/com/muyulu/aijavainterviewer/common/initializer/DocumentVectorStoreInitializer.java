@@ -1,6 +1,7 @@
 package com.muyulu.aijavainterviewer.common.initializer;
 
 import com.muyulu.aijavainterviewer.common.component.DocumentKeywordExtractor;
+import com.muyulu.aijavainterviewer.common.component.VectorStoreReadiness;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,7 +9,6 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.markdown.MarkdownDocumentReader;
 import org.springframework.ai.reader.markdown.config.MarkdownDocumentReaderConfig;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
-import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
@@ -29,6 +29,7 @@ public class DocumentVectorStoreInitializer {
 
     private final VectorStore vectorStore;
     private final DocumentKeywordExtractor keywordExtractor;
+    private final VectorStoreReadiness vectorStoreReadiness;
 
     @Value("${rag.document.auto-load:true}")
     private boolean autoLoad;
@@ -49,9 +50,13 @@ public class DocumentVectorStoreInitializer {
     public void initVectorStore() {
         if (!autoLoad) {
             log.info("文档自动加载已禁用,跳过向量库初始化");
+            // 仍然按向量表现有数据确定就绪状态
+            vectorStoreReadiness.verify();
             return;
         }
 
+        boolean loading = false;
+        boolean complete = false;
         try {
             // 检查向量库是否已有数据
             if (!forceReload && isVectorStoreInitialized()) {
@@ -71,8 +76,12 @@ public class DocumentVectorStoreInitializer {
             
             log.info("找到 {} 个 Markdown 文档", resources.length);
             
+            vectorStoreReadiness.markLoading();
+            loading = true;
+            
             if (resources.length == 0) {
                 log.warn("未找到任何 Markdown 文档,跳过向量库初始化");
+                vectorStoreReadiness.verify();
                 return;
             }
             
@@ -192,6 +201,7 @@ public class DocumentVectorStoreInitializer {
                 log.info("✅ 成功文档: {}, 失败文档: {}", successCount, failCount);
                 log.info("✅ 总片段数: {}, 已写入: {}, 失败批次: {}, 耗时: {} ms", 
                         allDocuments.size(), processedCount, failedBatches, duration);
+                complete = failCount == 0 && failedBatches == 0;
             } else {
                 log.warn("没有可加载的文档内容");
             }
@@ -199,29 +209,24 @@ public class DocumentVectorStoreInitializer {
         } catch (Exception e) {
             log.error("向量库初始化失败", e);
             // 不抛出异常,允许应用继续启动
+        } finally {
+            // 加载结束后按向量表实际数据更新就绪状态
+            if (loading) {
+                vectorStoreReadiness.markLoaded(complete);
+            }
         }
     }
     
     /**
      * 检查向量库是否已初始化(是否已有数据)
+     * 直接查询向量表，不调用向量模型，同时更新就绪状态
      */
     private boolean isVectorStoreInitialized() {
-        try {
-            List<Document> results = vectorStore.similaritySearch(
-                SearchRequest.builder()
-                    .query("Java")
-                    .topK(1)
-                    .build()
-            );
-            boolean initialized = !results.isEmpty();
-            if (initialized) {
-                log.info("向量库已包含数据,文档总数 >= 1");
-            }
-            return initialized;
-        } catch (Exception e) {
-            log.warn("无法检查向量库状态,将继续加载: {}", e.getMessage());
-            return false;
+        boolean initialized = vectorStoreReadiness.verify();
+        if (initialized) {
+            log.info("向量库已包含数据,文档总数 >= 1");
         }
+        return initialized;
     }
 
     /**
@@ -1,29 +1,112 @@
 package com.muyulu.aijavainterviewer.common.initializer;
 
-import com.google.common.hash.BloomFilter;
+import com.muyulu.aijavainterviewer.common.bloom.ResumeExistenceFilter;
+import com.muyulu.aijavainterviewer.common.bloom.ResumeIdSource;
 import com.muyulu.aijavainterviewer.mapper.ResumeMapper;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 简历布隆过滤器初始化
+ * 在后台线程中构建，不阻塞启动：具体的恢复/加载策略由 ResumeExistenceFilter 的实现决定，
+ * 本类负责提供通过游标流式读取 resume_id 的数据源，并定期触发快照。构建完成前过滤器对所有ID返回“可能存在”
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
-public class ResumeBloomFilterInitializer {
+public class ResumeBloomFilterInitializer implements ResumeIdSource {
 
     private final ResumeMapper resumeMapper;
-    private final BloomFilter<String> resumeBloomFilter;
+    private final ResumeExistenceFilter resumeExistenceFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final long snapshotIntervalMinutes;
+    private final ScheduledExecutorService scheduler;
+
+    public ResumeBloomFilterInitializer(
+            ResumeMapper resumeMapper,
+            ResumeExistenceFilter resumeExistenceFilter,
+            PlatformTransactionManager transactionManager,
+            @Value("${resume.bloom.snapshot-interval-minutes:30}") long snapshotIntervalMinutes
+    ) {
+        this.resumeMapper = resumeMapper;
+        this.resumeExistenceFilter = resumeExistenceFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.snapshotIntervalMinutes = snapshotIntervalMinutes;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resume-bloom-init");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
     @PostConstruct
     public void initBloomFilter() {
-        log.info("Initializing resume Bloom filter");
-        resumeMapper.selectList(null).forEach(resume -> {
-            if (resume.getResumeId() != null) {
-                resumeBloomFilter.put(resume.getResumeId());
+        scheduler.execute(this::bootstrap);
+    }
+
+    private void bootstrap() {
+        long startTime = System.currentTimeMillis();
+        try {
+            resumeExistenceFilter.bootstrap(this);
+            log.info("Resume Bloom filter initialized in {} ms", System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("Resume Bloom filter initialization failed, lookups will bypass the filter", e);
+            return;
+        }
+        if (snapshotIntervalMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(resumeExistenceFilter::snapshot,
+                    snapshotIntervalMinutes, snapshotIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @Override
+    public long streamAll(Consumer<String> sink) {
+        return streamInto(resumeMapper::selectAllResumeIds, sink);
+    }
+
+    @Override
+    public long streamCreatedSince(LocalDateTime since, Consumer<String> sink) {
+        return streamInto(() -> resumeMapper.selectResumeIdsCreatedSince(since), sink);
+    }
+
+    /**
+     * 在只读事务内消费游标，逐条交给调用方
+     */
+    private long streamInto(Supplier<Cursor<String>> cursorSupplier, Consumer<String> sink) {
+        Long count = transactionTemplate.execute(status -> {
+            long inserted = 0;
+            try (Cursor<String> cursor = cursorSupplier.get()) {
+                for (String resumeId : cursor) {
+                    if (resumeId != null) {
+                        sink.accept(resumeId);
+                        inserted++;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Failed to close resume id cursor", e);
             }
+            return inserted;
         });
-        log.info("Resume Bloom filter initialized");
+        return count != null ? count : 0;
     }
-}
 
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        resumeExistenceFilter.snapshot();
+    }
+}
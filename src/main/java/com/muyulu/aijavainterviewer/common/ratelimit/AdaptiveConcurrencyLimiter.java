@@ -0,0 +1,317 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import com.muyulu.aijavainterviewer.common.exception.OverloadException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 大模型调用自适应并发限制（AIMD）
+ * 并发上限随观测到的延迟动态调整：延迟正常且并发接近上限时加性增大（每轮约 +1），
+ * 延迟超过阈值或出现超时/限流错误时乘性减小。同步调用超出上限时在有界队列中短暂等待，
+ * 流式调用不排队直接拒绝；拒绝时抛出 OverloadException（HTTP 429 + Retry-After）
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 被保护的调用
+     */
+    @FunctionalInterface
+    public interface Invocation<T> {
+        T proceed() throws Throwable;
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final int maxQueueSize;
+    private final long queueTimeoutMillis;
+    private final long maxRetryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotReleased = lock.newCondition();
+    /**
+     * 以下三个字段只在持有 lock 时修改；声明为 volatile 是为了指标采集等无锁读取能看到最新值
+     */
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+    /**
+     * 延迟的指数加权平均（纳秒），用于估算 Retry-After
+     */
+    private volatile double latencyEwmaNanos;
+
+    private final Counter acceptedCounter;
+    private final Counter queuedCounter;
+    private final Counter shedCounter;
+    private final Counter decreaseCounter;
+
+    public AdaptiveConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${llm.limiter.initial-limit:20}") int initialLimit,
+            @Value("${llm.limiter.min-limit:2}") int minLimit,
+            @Value("${llm.limiter.max-limit:200}") int maxLimit,
+            @Value("${llm.limiter.latency-threshold-ms:10000}") long latencyThresholdMillis,
+            @Value("${llm.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${llm.limiter.queue-size:50}") int maxQueueSize,
+            @Value("${llm.limiter.queue-timeout-ms:3000}") long queueTimeoutMillis,
+            @Value("${llm.limiter.max-retry-after-seconds:60}") long maxRetryAfterSeconds
+    ) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.maxQueueSize = maxQueueSize;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+
+        this.acceptedCounter = meterRegistry.counter("llm.concurrency.requests", "result", "accepted");
+        this.queuedCounter = meterRegistry.counter("llm.concurrency.requests", "result", "queued");
+        this.shedCounter = meterRegistry.counter("llm.concurrency.requests", "result", "shed");
+        this.decreaseCounter = meterRegistry.counter("llm.concurrency.limit.decreases");
+        Gauge.builder("llm.concurrency.limit", this, limiter -> limiter.limit)
+                .description("当前大模型并发上限")
+                .register(meterRegistry);
+        Gauge.builder("llm.concurrency.inflight", this, limiter -> limiter.inFlight)
+                .description("进行中的大模型调用数")
+                .register(meterRegistry);
+        Gauge.builder("llm.concurrency.waiting", this, limiter -> limiter.waiting)
+                .description("排队等待的大模型调用数")
+                .register(meterRegistry);
+        Gauge.builder("llm.latency.ewma.ms", this, limiter -> limiter.latencyEwmaNanos / 1_000_000)
+                .description("大模型调用延迟（流式为首个响应）的指数加权平均")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 流式接口入口处的快速检查：并发已满时直接拒绝，在 SSE 响应开始前就返回 429
+     * （流式调用不排队，等到订阅时再拒绝只能在流中返回错误）。
+     * 只检查不占用许可：从检查到订阅之间还要做查库、检索等准备工作，期间占着许可会压低实际可用的并发；
+     * 因此并发接近上限时，通过检查的请求仍可能在 guard 订阅时被拒绝，以流中的 OverloadException 返回
+     */
+    public void checkAdmission() {
+        lock.lock();
+        try {
+            if (inFlight >= limit) {
+                shedCounter.increment();
+                throw OverloadException.llmBusy(retryAfterSeconds());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 执行同步调用，超出并发上限时最多排队等待 queue-timeout-ms
+     */
+    public <T> T call(Invocation<T> invocation) throws Throwable {
+        Permit permit = acquire(queueTimeoutMillis);
+        try {
+            T result = invocation.proceed();
+            permit.onSuccess();
+            return result;
+        } catch (Throwable e) {
+            permit.onError(e);
+            throw e;
+        } finally {
+            permit.release();
+        }
+    }
+
+    /**
+     * 包装流式调用：订阅时获取许可（不排队），以首个响应的耗时作为延迟样本，流结束或取消时释放
+     */
+    public <T> Flux<T> guard(Flux<T> source) {
+        return Flux.defer(() -> {
+            Permit permit;
+            try {
+                permit = acquire(0);
+            } catch (OverloadException e) {
+                return Flux.error(e);
+            }
+            return source
+                    .doOnNext(ignored -> permit.onSuccess())
+                    .doOnComplete(permit::onSuccess)
+                    .doOnError(permit::onError)
+                    .doFinally(signal -> permit.release());
+        });
+    }
+
+    private Permit acquire(long waitMillis) {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                acceptedCounter.increment();
+                return new Permit(inFlight);
+            }
+            if (waitMillis <= 0 || waiting >= maxQueueSize) {
+                shedCounter.increment();
+                throw OverloadException.llmBusy(retryAfterSeconds());
+            }
+            queuedCounter.increment();
+            waiting++;
+            try {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+                while (inFlight >= limit) {
+                    if (remainingNanos <= 0) {
+                        shedCounter.increment();
+                        throw OverloadException.llmBusy(retryAfterSeconds());
+                    }
+                    remainingNanos = slotReleased.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw OverloadException.llmBusy(retryAfterSeconds());
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            acceptedCounter.increment();
+            return new Permit(inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 根据一次调用的结果调整上限
+     * @param latencyNanos 延迟
+     * @param inFlightAtStart 开始时的并发数
+     * @param overloaded 是否出现超时/限流等过载信号
+     */
+    private void onSample(long latencyNanos, int inFlightAtStart, boolean overloaded) {
+        lock.lock();
+        try {
+            latencyEwmaNanos = latencyEwmaNanos == 0 ? latencyNanos : latencyEwmaNanos * 0.9 + latencyNanos * 0.1;
+            if (overloaded || latencyNanos > latencyThresholdNanos) {
+                backOff();
+            } else if (inFlightAtStart * 2 >= limit) {
+                // 只有并发确实接近上限时才增大，避免空闲时上限无限上涨
+                boolean wasFull = inFlight >= limit;
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+                if (wasFull && inFlight < limit) {
+                    slotReleased.signal();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 流式调用已记录过延迟样本后才出现过载错误（如首包之后超时/被限流）：只减小上限，不再计入延迟
+     */
+    private void onLateOverload() {
+        lock.lock();
+        try {
+            backOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 乘性减小上限，调用方持有 lock
+     */
+    private void backOff() {
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        if (limit < previous) {
+            decreaseCounter.increment();
+            log.info("大模型延迟升高或过载, 并发上限 {} -> {}", String.format("%.1f", previous), String.format("%.1f", limit));
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            slotReleased.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 建议的重试时间：按平均延迟估算，至少 1 秒
+     */
+    private long retryAfterSeconds() {
+        long seconds = (long) Math.ceil(latencyEwmaNanos / 1_000_000_000d);
+        return Math.min(maxRetryAfterSeconds, Math.max(1, seconds));
+    }
+
+    private static boolean isOverloadSignal(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null) {
+                String lower = message.toLowerCase(Locale.ROOT);
+                if (lower.contains("429") || lower.contains("throttl") || lower.contains("rate limit")) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 一次调用占用的并发许可，延迟样本只记录一次，过载错误最多触发一次减小，释放只生效一次
+     */
+    private final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean sampled = new AtomicBoolean();
+        private final AtomicBoolean overloadReported = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        void onSuccess() {
+            if (sampled.compareAndSet(false, true)) {
+                onSample(System.nanoTime() - startNanos, inFlightAtStart, false);
+            }
+        }
+
+        void onError(Throwable error) {
+            // 非过载类错误（参数错误等）不作为样本
+            if (!isOverloadSignal(error) || !overloadReported.compareAndSet(false, true)) {
+                return;
+            }
+            if (sampled.compareAndSet(false, true)) {
+                onSample(System.nanoTime() - startNanos, inFlightAtStart, true);
+            } else {
+                onLateOverload();
+            }
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release();
+            }
+        }
+    }
+}
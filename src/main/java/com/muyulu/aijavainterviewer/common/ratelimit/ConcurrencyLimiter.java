@@ -0,0 +1,111 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import cn.hutool.core.util.IdUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 并发数限流（带租期的分布式信号量）
+ * 每个 Key 对应一个 ZSET，成员为许可ID、分值为租约到期时间；获取时先回收已到期的许可（进程崩溃、连接断开未释放），
+ * 未达上限则登记新许可。Redis 不可用时按节点本地计数兜底
+ */
+@Slf4j
+public class ConcurrencyLimiter {
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local lease = tonumber(ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+            if redis.call('ZCARD', KEYS[1]) < tonumber(ARGV[2]) then
+                redis.call('ZADD', KEYS[1], now + lease, ARGV[3])
+                if redis.call('PTTL', KEYS[1]) < lease then
+                    redis.call('PEXPIRE', KEYS[1], lease)
+                end
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * 已获取的并发许可，release 可重复调用，只有第一次生效
+     */
+    public interface Permit {
+        void release();
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisAvailability redisAvailability;
+    private final Cache<String, AtomicLong> localInFlight;
+
+    public ConcurrencyLimiter(StringRedisTemplate redisTemplate, RedisAvailability redisAvailability,
+                              long maxKeys, Duration idleTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.redisAvailability = redisAvailability;
+        this.localInFlight = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /**
+     * 获取并发许可
+     * @param key 限流 Key
+     * @param limit 最大并发数
+     * @param leaseMillis 许可租期（毫秒）
+     * @return 许可，已达上限时返回 null
+     */
+    public Permit tryAcquire(String key, long limit, long leaseMillis) {
+        if (redisAvailability.isAvailable()) {
+            String permitId = IdUtil.fastSimpleUUID();
+            try {
+                Long result = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(key),
+                        String.valueOf(leaseMillis), String.valueOf(limit), permitId);
+                return result != null && result == 1L ? releaseOnce(() -> releaseRemote(key, permitId)) : null;
+            } catch (Exception e) {
+                redisAvailability.markUnavailable(e);
+            }
+        }
+        return tryAcquireLocal(key, limit);
+    }
+
+    private Permit tryAcquireLocal(String key, long limit) {
+        AtomicLong inFlight = localInFlight.get(key, k -> new AtomicLong());
+        while (true) {
+            long current = inFlight.get();
+            if (current >= limit) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return releaseOnce(() -> inFlight.updateAndGet(value -> Math.max(0, value - 1)));
+            }
+        }
+    }
+
+    private void releaseRemote(String key, String permitId) {
+        try {
+            redisTemplate.opsForZSet().remove(key, permitId);
+        } catch (Exception e) {
+            // 释放失败时由租约到期回收
+            log.warn("释放并发许可失败, 等待租约到期: key={}, {}", key, e.getMessage());
+        }
+    }
+
+    private Permit releaseOnce(Runnable action) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                action.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateLimiterConfig;
+import org.redisson.api.RateType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 两级令牌桶限流器
+ * Redis 中的 RRateLimiter 是所有节点共享的令牌桶；本地按批次从中租用令牌，请求优先消耗本地租到的令牌（无锁），
+ * 剩余不足一半时异步租下一批，只有本地耗尽时才同步访问 Redis。租到的令牌在一个补充周期后作废，
+ * 避免长期闲置后集中放行。Redis 异常时切换到按注解参数配置的本地令牌桶
+ */
+@Slf4j
+public class HierarchicalRateLimiter {
+
+    private record Lease(long remaining, long expiresAtNanos) {
+    }
+
+    private static final Lease EMPTY_LEASE = new Lease(0, 0);
+
+    private final String key;
+    private final RRateLimiter redisLimiter;
+    private final RedisAvailability redisAvailability;
+    private final LocalTokenBucket fallbackBucket;
+    private final long capacity;
+    private final long intervalMillis;
+    private final long leaseBatch;
+    private final long leaseTtlNanos;
+
+    private final AtomicReference<Lease> lease = new AtomicReference<>(EMPTY_LEASE);
+    private final AtomicBoolean leasing = new AtomicBoolean();
+    private volatile boolean initialized;
+
+    /**
+     * @param capacity 桶容量（允许的突发量）
+     * @param rate 每秒补充的令牌数
+     * @param leaseBatch 每次从 Redis 租用的令牌数，1 表示不租用、逐个获取
+     */
+    public HierarchicalRateLimiter(String key, RRateLimiter redisLimiter, RedisAvailability redisAvailability,
+                                   long capacity, long rate, long leaseBatch) {
+        this.key = key;
+        this.redisLimiter = redisLimiter;
+        this.redisAvailability = redisAvailability;
+        this.capacity = Math.max(1, capacity);
+        long safeRate = Math.max(1, rate);
+        // 容量为 capacity、每秒补充 rate 个：等价于每 capacity/rate 秒最多 capacity 个
+        this.intervalMillis = Math.max(1, this.capacity * 1000 / safeRate);
+        this.leaseBatch = Math.max(1, Math.min(leaseBatch, this.capacity));
+        this.leaseTtlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1000, this.leaseBatch * 1000 / safeRate));
+        this.fallbackBucket = new LocalTokenBucket(this.capacity, safeRate);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 尝试获取一个令牌
+     */
+    public boolean tryAcquire() {
+        if (!redisAvailability.isAvailable()) {
+            return fallbackBucket.tryAcquire();
+        }
+        if (takeLeased()) {
+            refillAsyncIfLow();
+            return true;
+        }
+        try {
+            ensureInitialized();
+            if (leaseBatch > 1 && redisLimiter.tryAcquire(leaseBatch)) {
+                addLease(leaseBatch - 1);
+                return true;
+            }
+            return redisLimiter.tryAcquire(1);
+        } catch (Exception e) {
+            redisAvailability.markUnavailable(e);
+            return fallbackBucket.tryAcquire();
+        }
+    }
+
+    private boolean takeLeased() {
+        while (true) {
+            Lease current = lease.get();
+            if (current.remaining() <= 0 || System.nanoTime() - current.expiresAtNanos() > 0) {
+                return false;
+            }
+            if (lease.compareAndSet(current, new Lease(current.remaining() - 1, current.expiresAtNanos()))) {
+                return true;
+            }
+        }
+    }
+
+    private void addLease(long permits) {
+        while (true) {
+            Lease current = lease.get();
+            long now = System.nanoTime();
+            long remaining = now - current.expiresAtNanos() > 0 ? 0 : current.remaining();
+            if (lease.compareAndSet(current, new Lease(remaining + permits, now + leaseTtlNanos))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 本地剩余令牌不足一半时异步租下一批，同一时刻只有一个租用请求
+     */
+    private void refillAsyncIfLow() {
+        if (leaseBatch <= 1 || lease.get().remaining() > leaseBatch / 2 || !leasing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            redisLimiter.tryAcquireAsync(leaseBatch).whenComplete((acquired, error) -> {
+                leasing.set(false);
+                if (error != null) {
+                    redisAvailability.markUnavailable(error);
+                } else if (Boolean.TRUE.equals(acquired)) {
+                    addLease(leaseBatch);
+                }
+            });
+        } catch (Exception e) {
+            leasing.set(false);
+            redisAvailability.markUnavailable(e);
+        }
+    }
+
+    /**
+     * 首次使用时设置 Redis 限流参数；已存在但参数不同（注解修改过）时覆盖
+     */
+    private void ensureInitialized() {
+        if (initialized) {
+            return;
+        }
+        if (!redisLimiter.trySetRate(RateType.OVERALL, capacity, intervalMillis, RateIntervalUnit.MILLISECONDS)) {
+            RateLimiterConfig config = redisLimiter.getConfig();
+            if (config.getRate() != capacity || config.getRateInterval() != intervalMillis) {
+                redisLimiter.setRate(RateType.OVERALL, capacity, intervalMillis, RateIntervalUnit.MILLISECONDS);
+            }
+        }
+        log.info("初始化限流器: key={}, capacity={}, interval={}ms, leaseBatch={}", key, capacity, intervalMillis, leaseBatch);
+        initialized = true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 本地令牌桶（无锁）
+ * 桶状态为不可变对象，取令牌时按经过的时间补充令牌后 CAS 替换；Redis 不可用时作为兜底限流
+ */
+public class LocalTokenBucket {
+
+    private record State(double tokens, long refilledAtNanos) {
+    }
+
+    private final double capacity;
+    private final double permitsPerNano;
+    private final AtomicReference<State> state;
+
+    public LocalTokenBucket(long capacity, double permitsPerSecond) {
+        this.capacity = capacity;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, current.tokens() + (now - current.refilledAtNanos()) * permitsPerNano);
+            if (tokens < 1) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import com.muyulu.aijavainterviewer.common.annotation.RateLimit;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.Method;
+
+/**
+ * 限流方法描述（启动时根据 @RateLimit 生成，不可变）
+ * Key 前缀与各维度的 Key 片段预先拼好，全局令牌桶的限流器在创建时直接绑定，请求时无需反射和查表
+ * @param keyPrefix 限流 Key 前缀（rate_limit:{name}，滑动窗口/并发模式另带模式后缀，避免与令牌桶的 Key 类型冲突）
+ * @param globalKey 全局限流 Key
+ * @param windowMillis 滑动窗口长度（毫秒）
+ * @param leaseMillis 并发许可租期（毫秒）
+ * @param globalLimiter 全局令牌桶限流器，其他情况为 null
+ */
+public record RateLimitDescriptor(
+        String keyPrefix,
+        String globalKey,
+        RateLimit.LimitType limitType,
+        RateLimit.Mode mode,
+        long capacity,
+        long rate,
+        long windowMillis,
+        long leaseMillis,
+        String message,
+        HierarchicalRateLimiter globalLimiter
+) {
+
+    public static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
+
+    private static final String USER_SEGMENT = ":user:";
+    private static final String ANONYMOUS_SEGMENT = ":anonymous";
+    private static final String IP_SEGMENT = ":ip:";
+    private static final String GLOBAL_SEGMENT = ":global";
+
+    /**
+     * 根据方法上的注解生成 Key 前缀，名称为空时使用「类名.方法名」
+     */
+    public static String keyPrefix(Method method, RateLimit rateLimit) {
+        String name = rateLimit.name();
+        if (name.isEmpty()) {
+            name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+        return switch (rateLimit.mode()) {
+            case TOKEN_BUCKET -> RATE_LIMIT_KEY_PREFIX + name;
+            case SLIDING_WINDOW -> RATE_LIMIT_KEY_PREFIX + "window:" + name;
+            case CONCURRENCY -> RATE_LIMIT_KEY_PREFIX + "concurrency:" + name;
+        };
+    }
+
+    /**
+     * 全局限流 Key
+     */
+    public static String globalKey(String keyPrefix) {
+        return keyPrefix + GLOBAL_SEGMENT;
+    }
+
+    /**
+     * 按限流维度生成本次请求的限流 Key
+     * @param request 当前请求，不在请求上下文中时为 null
+     */
+    public String resolveKey(HttpServletRequest request) {
+        return switch (limitType) {
+            case GLOBAL -> globalKey;
+            case USER -> {
+                Object userId = request != null ? request.getAttribute("userId") : null;
+                yield userId != null ? keyPrefix + USER_SEGMENT + userId : keyPrefix + ANONYMOUS_SEGMENT;
+            }
+            case IP -> request != null ? keyPrefix + IP_SEGMENT + clientIp(request) : keyPrefix;
+        };
+    }
+
+    /**
+     * 获取客户端真实 IP，多级代理时取第一个
+     */
+    static String clientIp(HttpServletRequest request) {
+        String ip = request.getHeader("X-Forwarded-For");
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            ip = request.getHeader("X-Real-IP");
+        }
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            return request.getRemoteAddr();
+        }
+        int comma = ip.indexOf(',');
+        return comma >= 0 ? ip.substring(0, comma).trim() : ip;
+    }
+}
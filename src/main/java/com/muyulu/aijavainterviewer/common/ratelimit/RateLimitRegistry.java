@@ -0,0 +1,91 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import com.muyulu.aijavainterviewer.common.annotation.RateLimit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 限流方法注册表
+ * 启动完成后扫描项目内所有 Bean，为每个 @RateLimit 方法生成 RateLimitDescriptor 列表（并发限流排在最前：
+ * 并发许可在后续限流拒绝时可以归还，令牌桶/滑动窗口扣减后无法退回，放在最后检查）；
+ * 切面按 Method 直接取描述，启动后才出现的方法（如原型 Bean）在首次调用时补充解析
+ */
+@Slf4j
+@Component
+public class RateLimitRegistry implements SmartInitializingSingleton {
+
+    private static final String BASE_PACKAGE = "com.muyulu.aijavainterviewer";
+
+    private final ListableBeanFactory beanFactory;
+    private final RateLimiterEngine rateLimiterEngine;
+    private final Map<Method, List<RateLimitDescriptor>> descriptors = new ConcurrentHashMap<>();
+
+    public RateLimitRegistry(ListableBeanFactory beanFactory, RateLimiterEngine rateLimiterEngine) {
+        this.beanFactory = beanFactory;
+        this.rateLimiterEngine = rateLimiterEngine;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+            Class<?> userClass = ClassUtils.getUserClass(beanType);
+            if (!userClass.getName().startsWith(BASE_PACKAGE)) {
+                continue;
+            }
+            ReflectionUtils.doWithMethods(userClass,
+                    method -> descriptors.computeIfAbsent(method, this::describeAll),
+                    RateLimitRegistry::hasRateLimit);
+        }
+        log.info("限流方法注册完成: {} 个", descriptors.size());
+    }
+
+    /**
+     * 获取方法的限流描述
+     * @return 未标注 @RateLimit 时返回空列表
+     */
+    public List<RateLimitDescriptor> get(Method method) {
+        List<RateLimitDescriptor> methodDescriptors = descriptors.get(method);
+        if (methodDescriptors != null) {
+            return methodDescriptors;
+        }
+        return hasRateLimit(method) ? descriptors.computeIfAbsent(method, this::describeAll) : List.of();
+    }
+
+    private static boolean hasRateLimit(Method method) {
+        return method.getAnnotationsByType(RateLimit.class).length > 0;
+    }
+
+    private List<RateLimitDescriptor> describeAll(Method method) {
+        return Arrays.stream(method.getAnnotationsByType(RateLimit.class))
+                .map(rateLimit -> describe(method, rateLimit))
+                .sorted(Comparator.comparing(descriptor -> descriptor.mode() != RateLimit.Mode.CONCURRENCY))
+                .toList();
+    }
+
+    private RateLimitDescriptor describe(Method method, RateLimit rateLimit) {
+        String keyPrefix = RateLimitDescriptor.keyPrefix(method, rateLimit);
+        String globalKey = RateLimitDescriptor.globalKey(keyPrefix);
+        HierarchicalRateLimiter globalLimiter = rateLimit.mode() == RateLimit.Mode.TOKEN_BUCKET
+                && rateLimit.limitType() == RateLimit.LimitType.GLOBAL
+                ? rateLimiterEngine.pinnedLimiter(globalKey, rateLimit.capacity(), rateLimit.rate())
+                : null;
+        return new RateLimitDescriptor(keyPrefix, globalKey, rateLimit.limitType(), rateLimit.mode(),
+                rateLimit.capacity(), rateLimit.rate(), rateLimit.windowSeconds() * 1000, rateLimit.leaseSeconds() * 1000,
+                rateLimit.message(), globalLimiter);
+    }
+}
@@ -0,0 +1,116 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.muyulu.aijavainterviewer.common.annotation.RateLimit;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 限流引擎
+ * 令牌桶模式：全局限流器常驻内存；按用户/IP 划分的限流器放在有界 LRU 缓存中，长时间未访问或超出上限时淘汰，
+ * 淘汰只会丢弃本地未用完的租约（Redis 中的令牌桶状态不受影响）。滑动窗口与并发模式直接执行 Redis Lua 脚本。
+ * 所有模式共用一个 Redis 可用性标记，Redis 不可用时都降级为节点本地限流
+ */
+@Component
+public class RateLimiterEngine {
+
+    private final RedissonClient redissonClient;
+    private final RedisAvailability redisAvailability;
+    private final double leaseRatio;
+    private final Map<String, HierarchicalRateLimiter> pinnedLimiters = new ConcurrentHashMap<>();
+    private final Cache<String, HierarchicalRateLimiter> limiters;
+    private final SlidingWindowLimiter slidingWindowLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    private final Counter allowedCounter;
+    private final Counter rejectedCounter;
+
+    public RateLimiterEngine(
+            RedissonClient redissonClient,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.lease-ratio:0.1}") double leaseRatio,
+            @Value("${rate-limit.redis-retry-seconds:5}") long redisRetrySeconds,
+            @Value("${rate-limit.max-limiters:10000}") long maxLimiters,
+            @Value("${rate-limit.limiter-idle-minutes:30}") long limiterIdleMinutes
+    ) {
+        this.redissonClient = redissonClient;
+        this.leaseRatio = leaseRatio;
+        this.redisAvailability = new RedisAvailability(redisRetrySeconds * 1000);
+        this.limiters = Caffeine.newBuilder()
+                .maximumSize(maxLimiters)
+                .expireAfterAccess(Duration.ofMinutes(limiterIdleMinutes))
+                .build();
+        this.slidingWindowLimiter = new SlidingWindowLimiter(redisTemplate, redisAvailability,
+                maxLimiters, Duration.ofMinutes(limiterIdleMinutes));
+        this.concurrencyLimiter = new ConcurrencyLimiter(redisTemplate, redisAvailability,
+                maxLimiters, Duration.ofMinutes(limiterIdleMinutes));
+        this.allowedCounter = meterRegistry.counter("rate.limit.requests", "result", "allowed");
+        this.rejectedCounter = meterRegistry.counter("rate.limit.requests", "result", "rejected");
+        Gauge.builder("rate.limit.redis.available", redisAvailability, availability -> availability.isAvailable() ? 1 : 0)
+                .description("限流是否使用 Redis（0 表示已降级为本地限流）")
+                .register(meterRegistry);
+        Gauge.builder("rate.limit.limiters", limiters, Cache::estimatedSize)
+                .description("内存中按用户/IP 划分的限流器数量")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 尝试通过速率限制（令牌桶或滑动窗口）
+     * @param descriptor 限流方法描述
+     * @param key 本次请求的限流 Key（含维度后缀）
+     * @return 是否放行
+     */
+    public boolean tryAcquire(RateLimitDescriptor descriptor, String key) {
+        boolean acquired;
+        if (descriptor.mode() == RateLimit.Mode.SLIDING_WINDOW) {
+            acquired = slidingWindowLimiter.tryAcquire(key, descriptor.capacity(), descriptor.windowMillis());
+        } else {
+            HierarchicalRateLimiter limiter = descriptor.globalLimiter() != null
+                    ? descriptor.globalLimiter()
+                    : limiters.get(key, k -> newLimiter(k, descriptor.capacity(), descriptor.rate()));
+            acquired = limiter.tryAcquire();
+        }
+        (acquired ? allowedCounter : rejectedCounter).increment();
+        return acquired;
+    }
+
+    /**
+     * 尝试获取并发许可（CONCURRENCY 模式）
+     * @return 许可，已达上限时返回 null
+     */
+    public ConcurrencyLimiter.Permit tryAcquirePermit(RateLimitDescriptor descriptor, String key) {
+        ConcurrencyLimiter.Permit permit = concurrencyLimiter.tryAcquire(key, descriptor.capacity(), descriptor.leaseMillis());
+        (permit != null ? allowedCounter : rejectedCounter).increment();
+        return permit;
+    }
+
+    /**
+     * 获取常驻内存的限流器（全局限流使用，同一 Key 只创建一次）
+     */
+    public HierarchicalRateLimiter pinnedLimiter(String key, long capacity, long rate) {
+        return pinnedLimiters.computeIfAbsent(key, k -> newLimiter(k, capacity, rate));
+    }
+
+    private HierarchicalRateLimiter newLimiter(String key, long capacity, long rate) {
+        return new HierarchicalRateLimiter(key, redissonClient.getRateLimiter(key), redisAvailability,
+                capacity, rate, leaseBatch(capacity));
+    }
+
+    /**
+     * 每次租用的令牌数：容量的 lease-ratio，按用户/IP 的小容量限流器通常为 1（不租用）
+     */
+    private long leaseBatch(long capacity) {
+        return Math.max(1, (long) Math.floor(capacity * leaseRatio));
+    }
+}
@@ -0,0 +1,29 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis 可用性标记
+ * 访问 Redis 出错后在一段时间内视为不可用，期间所有限流器直接使用本地令牌桶，到期后再尝试 Redis
+ */
+@Slf4j
+public class RedisAvailability {
+
+    private final long retryAfterMillis;
+    private volatile long unavailableUntil;
+
+    public RedisAvailability(long retryAfterMillis) {
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public boolean isAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    public void markUnavailable(Throwable cause) {
+        if (isAvailable()) {
+            log.warn("Redis 限流不可用, {} ms 内切换为本地限流: {}", retryAfterMillis, cause.getMessage());
+        }
+        unavailableUntil = System.currentTimeMillis() + retryAfterMillis;
+    }
+}
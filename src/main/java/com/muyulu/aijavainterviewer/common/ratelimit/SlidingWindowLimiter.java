@@ -0,0 +1,64 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import cn.hutool.core.util.IdUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 滑动窗口限流（滑动日志）
+ * 每个 Key 对应一个 ZSET，成员为一次请求、分值为请求时间；Lua 脚本内先清理窗口外的记录再计数，
+ * 时间取 Redis 服务器时间，不受各节点时钟偏差影响。Redis 不可用时按同等平均速率的本地令牌桶兜底
+ */
+public class SlidingWindowLimiter {
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local window = tonumber(ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+            if redis.call('ZCARD', KEYS[1]) < tonumber(ARGV[2]) then
+                redis.call('ZADD', KEYS[1], now, ARGV[3])
+                redis.call('PEXPIRE', KEYS[1], window)
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisAvailability redisAvailability;
+    private final Cache<String, LocalTokenBucket> fallbackBuckets;
+
+    public SlidingWindowLimiter(StringRedisTemplate redisTemplate, RedisAvailability redisAvailability,
+                                long maxKeys, Duration idleTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.redisAvailability = redisAvailability;
+        this.fallbackBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /**
+     * @param key 限流 Key
+     * @param limit 窗口内最大请求数
+     * @param windowMillis 窗口长度（毫秒）
+     */
+    public boolean tryAcquire(String key, long limit, long windowMillis) {
+        if (redisAvailability.isAvailable()) {
+            try {
+                Long result = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(key),
+                        String.valueOf(windowMillis), String.valueOf(limit), IdUtil.fastSimpleUUID());
+                return result != null && result == 1L;
+            } catch (Exception e) {
+                redisAvailability.markUnavailable(e);
+            }
+        }
+        return fallbackBuckets.get(key, k -> new LocalTokenBucket(limit, limit * 1000.0 / windowMillis)).tryAcquire();
+    }
+}
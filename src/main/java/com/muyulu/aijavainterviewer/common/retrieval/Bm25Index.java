@@ -0,0 +1,139 @@
+package com.muyulu.aijavainterviewer.common.retrieval;
+
+import com.muyulu.aijavainterviewer.common.util.TextTokenizer;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 进程内 BM25 倒排索引（不可变）
+ * 使用 TextTokenizer 分词（英文小写词 + 中文二元组），不依赖中文词典；
+ * 专有名词类查询（如 “ConcurrentHashMap CAS”、“MVCC”）按词项精确匹配，弥补向量检索在阈值下的漏召回
+ */
+public final class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Bm25Index EMPTY = new Bm25Index(List.of(), Map.of(), new int[0], 0);
+
+    /**
+     * 倒排表：包含该词项的文档下标及词频
+     */
+    private record Posting(int[] docIds, int[] frequencies) {
+    }
+
+    private final List<Document> documents;
+    private final Map<String, Posting> postings;
+    private final int[] docLengths;
+    private final double avgDocLength;
+
+    private Bm25Index(List<Document> documents, Map<String, Posting> postings, int[] docLengths, double avgDocLength) {
+        this.documents = documents;
+        this.postings = postings;
+        this.docLengths = docLengths;
+        this.avgDocLength = avgDocLength;
+    }
+
+    public static Bm25Index empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 构建索引，索引文本为文档内容加章节标题
+     */
+    public static Bm25Index build(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, List<int[]>> builder = new HashMap<>();
+        int[] docLengths = new int[documents.size()];
+        long totalLength = 0;
+        for (int i = 0; i < documents.size(); i++) {
+            Map<String, Integer> frequencies = TextTokenizer.termFrequencies(indexText(documents.get(i)));
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                builder.computeIfAbsent(entry.getKey(), term -> new ArrayList<>()).add(new int[]{i, entry.getValue()});
+                length += entry.getValue();
+            }
+            docLengths[i] = length;
+            totalLength += length;
+        }
+
+        Map<String, Posting> postings = new HashMap<>(builder.size() * 2);
+        builder.forEach((term, entries) -> {
+            int[] docIds = new int[entries.size()];
+            int[] frequencies = new int[entries.size()];
+            for (int j = 0; j < entries.size(); j++) {
+                docIds[j] = entries.get(j)[0];
+                frequencies[j] = entries.get(j)[1];
+            }
+            postings.put(term, new Posting(docIds, frequencies));
+        });
+        return new Bm25Index(List.copyOf(documents), postings, docLengths, (double) totalLength / documents.size());
+    }
+
+    /**
+     * 检索
+     * @param query 查询文本
+     * @param topK 返回数量
+     * @return 按 BM25 得分降序排列的文档，只包含至少命中一个词项的文档
+     */
+    public List<Document> search(String query, int topK) {
+        if (documents.isEmpty() || topK <= 0) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        double[] scores = new double[documents.size()];
+        int n = documents.size();
+        for (String term : terms) {
+            Posting posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            int df = posting.docIds().length;
+            double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            for (int j = 0; j < df; j++) {
+                int docId = posting.docIds()[j];
+                int tf = posting.frequencies()[j];
+                double lengthNorm = 1 - B + B * docLengths[docId] / avgDocLength;
+                scores[docId] += idf * tf * (K1 + 1) / (tf + K1 * lengthNorm);
+            }
+        }
+
+        // 小顶堆保留得分最高的 topK 个
+        PriorityQueue<Integer> heap = new PriorityQueue<>(topK + 1, (a, b) -> Double.compare(scores[a], scores[b]));
+        for (int i = 0; i < n; i++) {
+            if (scores[i] <= 0) {
+                continue;
+            }
+            if (heap.size() < topK) {
+                heap.add(i);
+            } else if (scores[i] > scores[heap.peek()]) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        Document[] results = new Document[heap.size()];
+        for (int i = results.length - 1; i >= 0; i--) {
+            results[i] = documents.get(heap.poll());
+        }
+        return List.of(results);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private static String indexText(Document document) {
+        String text = document.getText() != null ? document.getText() : "";
+        Object sectionTitle = document.getMetadata().get("section_title");
+        return sectionTitle != null ? sectionTitle + "\n" + text : text;
+    }
+}
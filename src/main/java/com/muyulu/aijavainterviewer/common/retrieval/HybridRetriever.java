@@ -0,0 +1,225 @@
+package com.muyulu.aijavainterviewer.common.retrieval;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muyulu.aijavainterviewer.common.component.VectorStoreReadiness;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 混合检索：向量检索 + BM25 关键词检索，RRF 融合
+ * 向量检索在独立线程池中执行，同时在调用线程查询进程内 BM25 索引，两路结果按倒数排名融合；
+ * 向量检索超时或失败时只返回关键词结果。BM25 索引在向量库进入可检索状态后从向量表全量构建
+ */
+@Slf4j
+@Component
+public class HybridRetriever {
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final VectorStore vectorStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String selectSql;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final double hybridVectorThreshold;
+    private final int candidates;
+    private final int rrfK;
+    private final long vectorTimeoutMillis;
+
+    private final ExecutorService vectorExecutor;
+    private final ExecutorService indexExecutor;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile Bm25Index index = Bm25Index.empty();
+
+    private final Timer vectorTimer;
+    private final Timer lexicalTimer;
+    private final Timer hybridTimer;
+
+    public HybridRetriever(
+            VectorStore vectorStore,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            VectorStoreReadiness vectorStoreReadiness,
+            MeterRegistry meterRegistry,
+            @Value("${rag.vector-store.table:public.vector_store}") String table,
+            @Value("${rag.hybrid.enabled:true}") boolean enabled,
+            @Value("${rag.retrieval.similarity-threshold:0.65}") double similarityThreshold,
+            @Value("${rag.hybrid.vector-threshold:0.5}") double hybridVectorThreshold,
+            @Value("${rag.hybrid.candidates:20}") int candidates,
+            @Value("${rag.hybrid.rrf-k:60}") int rrfK,
+            @Value("${rag.hybrid.vector-timeout-ms:3000}") long vectorTimeoutMillis,
+            @Value("${rag.hybrid.vector-threads:8}") int vectorThreads
+    ) {
+        this.vectorStore = vectorStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.selectSql = "SELECT id::text AS id, content, metadata::text AS metadata FROM " + table;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.hybridVectorThreshold = hybridVectorThreshold;
+        this.candidates = candidates;
+        this.rrfK = rrfK;
+        this.vectorTimeoutMillis = vectorTimeoutMillis;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 队列满时拒绝，调用方按超时同样处理，只使用关键词结果（不能在请求线程执行，否则绕过超时控制）
+        this.vectorExecutor = new ThreadPoolExecutor(vectorThreads, vectorThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(vectorThreads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hybrid-vector-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hybrid-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.vectorTimer = meterRegistry.timer("rag.retrieval.latency", "leg", "vector");
+        this.lexicalTimer = meterRegistry.timer("rag.retrieval.latency", "leg", "lexical");
+        this.hybridTimer = meterRegistry.timer("rag.retrieval.latency", "leg", "hybrid");
+        Gauge.builder("rag.lexical.index.size", this, retriever -> retriever.index.size())
+                .description("BM25 索引中的文档片段数")
+                .register(meterRegistry);
+
+        if (enabled) {
+            vectorStoreReadiness.addListener(state -> {
+                if (state.isServing()) {
+                    scheduleRebuild();
+                }
+            });
+        }
+    }
+
+    /**
+     * 检索相关文档
+     * @param query 查询文本
+     * @param topK 返回数量
+     * @return 按相关度排序的文档
+     */
+    public List<Document> search(String query, int topK) {
+        if (!enabled) {
+            return vectorSearch(query, topK, similarityThreshold);
+        }
+        long startNanos = System.nanoTime();
+        int candidateCount = Math.max(candidates, topK);
+        CompletableFuture<List<Document>> vectorFuture;
+        try {
+            vectorFuture = CompletableFuture.supplyAsync(
+                    () -> vectorSearch(query, candidateCount, hybridVectorThreshold), vectorExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("向量检索线程池已满, 只使用关键词检索结果");
+            vectorFuture = CompletableFuture.completedFuture(List.of());
+        }
+
+        long lexicalStart = System.nanoTime();
+        List<Document> lexical = index.search(query, candidateCount);
+        lexicalTimer.record(System.nanoTime() - lexicalStart, TimeUnit.NANOSECONDS);
+
+        List<Document> vector;
+        try {
+            vector = vectorFuture.get(vectorTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            vectorFuture.cancel(true);
+            log.warn("向量检索超时({} ms), 只使用关键词检索结果", vectorTimeoutMillis);
+            vector = List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            vector = List.of();
+        } catch (Exception e) {
+            log.warn("向量检索失败, 只使用关键词检索结果: {}", e.getMessage());
+            vector = List.of();
+        }
+
+        List<Document> fused = ReciprocalRankFusion.fuse(rrfK, topK, List.of(vector, lexical));
+        hybridTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        log.debug("混合检索: 向量 {} 条, 关键词 {} 条, 融合后 {} 条", vector.size(), lexical.size(), fused.size());
+        return fused;
+    }
+
+    private List<Document> vectorSearch(String query, int topK, double threshold) {
+        long startNanos = System.nanoTime();
+        try {
+            return vectorStore.similaritySearch(SearchRequest.builder()
+                    .query(query)
+                    .topK(topK)
+                    .similarityThreshold(threshold)
+                    .build());
+        } finally {
+            vectorTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 在后台重建 BM25 索引，重建期间继续使用旧索引；多次触发合并为一次
+     */
+    public void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            indexExecutor.execute(() -> {
+                rebuildPending.set(false);
+                rebuildIndex();
+            });
+        }
+    }
+
+    private void rebuildIndex() {
+        long startTime = System.currentTimeMillis();
+        try {
+            List<Document> documents = jdbcTemplate.query(selectSql, (rs, rowNum) ->
+                    new Document(rs.getString("id"), Objects.requireNonNullElse(rs.getString("content"), ""), parseMetadata(rs.getString("metadata"))));
+            index = Bm25Index.build(documents);
+            log.info("BM25 索引构建完成: {} 个片段, 耗时 {} ms", documents.size(), System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.warn("BM25 索引构建失败, 继续使用旧索引: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Object> parseMetadata(String json) {
+        if (json == null || json.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            Map<String, Object> metadata = objectMapper.readValue(json, METADATA_TYPE);
+            // Document 不允许元数据中有 null 值
+            metadata.values().removeIf(Objects::isNull);
+            return metadata;
+        } catch (Exception e) {
+            return new HashMap<>();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        vectorExecutor.shutdownNow();
+        indexExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,52 @@
+package com.muyulu.aijavainterviewer.common.retrieval;
+
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 倒数排名融合（RRF）
+ * 每路结果中排第 r 位的文档得分 1 / (k + r)，按文档ID累加后排序；只用排名，不需要对齐向量相似度与 BM25 的分值尺度
+ */
+public final class ReciprocalRankFusion {
+
+    /**
+     * 常用的平滑常数
+     */
+    public static final int DEFAULT_K = 60;
+
+    private ReciprocalRankFusion() {
+    }
+
+    /**
+     * 融合多路排序结果
+     * @param k 平滑常数
+     * @param topK 返回数量
+     * @param rankings 各路结果（按相关度降序）
+     * @return 融合后的文档，得分相同时先出现的在前
+     */
+    public static List<Document> fuse(int k, int topK, List<List<Document>> rankings) {
+        Map<String, Document> documents = new LinkedHashMap<>();
+        Map<String, Double> scores = new HashMap<>();
+        for (List<Document> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                Document document = ranking.get(rank);
+                documents.putIfAbsent(document.getId(), document);
+                scores.merge(document.getId(), 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+        List<String> ids = new ArrayList<>(documents.keySet());
+        // List.sort 是稳定排序，得分相同的保持首次出现的顺序
+        ids.sort(Comparator.comparingDouble((String id) -> scores.get(id)).reversed());
+        List<Document> fused = new ArrayList<>(Math.min(topK, ids.size()));
+        for (int i = 0; i < ids.size() && i < topK; i++) {
+            fused.add(documents.get(ids.get(i)));
+        }
+        return fused;
+    }
+}
@@ -0,0 +1,130 @@
+package com.muyulu.aijavainterviewer.common.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 中英文混合文本的轻量分词工具
+ * 英文/数字按连续字符切成小写词（保留 + # . 以识别 C++、C#、Node.js），中文按相邻两字切成二元组，
+ * 不依赖词典，用于词法相似度计算与关键词检索
+ */
+public final class TextTokenizer {
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * 切分文本
+     * @param text 文本
+     * @return 词项列表（保留重复，按出现顺序）
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isWordChar(c)) {
+                int start = i;
+                while (i < length && (isWordChar(text.charAt(i)) || isWordSymbol(text.charAt(i)))) {
+                    i++;
+                }
+                // 去掉结尾的 . 等符号，保留 C++ / C# 结尾
+                int end = i;
+                while (end > start && text.charAt(end - 1) == '.') {
+                    end--;
+                }
+                tokens.add(text.substring(start, end).toLowerCase(Locale.ROOT));
+            } else if (isCjk(c)) {
+                int start = i;
+                while (i < length && isCjk(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    tokens.add(String.valueOf(c));
+                } else {
+                    for (int j = start; j + 1 < i; j++) {
+                        tokens.add(text.substring(j, j + 2));
+                    }
+                }
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 统计词频
+     */
+    public static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    /**
+     * 归一化的词频向量（L2 范数为 1），空文本返回空 Map
+     */
+    public static Map<String, Double> normalizedVector(String text) {
+        Map<String, Integer> frequencies = termFrequencies(text);
+        double norm = 0;
+        for (int count : frequencies.values()) {
+            norm += (double) count * count;
+        }
+        Map<String, Double> vector = new HashMap<>(frequencies.size() * 2);
+        if (norm == 0) {
+            return vector;
+        }
+        double sqrtNorm = Math.sqrt(norm);
+        frequencies.forEach((term, count) -> vector.put(term, count / sqrtNorm));
+        return vector;
+    }
+
+    /**
+     * 两个向量的余弦相似度
+     */
+    public static double cosine(Map<String, Double> a, Map<String, Double> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        Map<String, Double> smaller = a.size() <= b.size() ? a : b;
+        Map<String, Double> larger = smaller == a ? b : a;
+        double dot = 0;
+        double normA = 0;
+        for (Map.Entry<String, Double> entry : smaller.entrySet()) {
+            Double other = larger.get(entry.getKey());
+            if (other != null) {
+                dot += entry.getValue() * other;
+            }
+        }
+        for (double value : a.values()) {
+            normA += value * value;
+        }
+        double normB = 0;
+        for (double value : b.values()) {
+            normB += value * value;
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isWordSymbol(char c) {
+        return c == '+' || c == '#' || c == '.' || c == '_' || c == '-';
+    }
+
+    private static boolean isCjk(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+}
@@ -1,25 +1,53 @@
 package com.muyulu.aijavainterviewer.config;
 
-import com.google.common.hash.BloomFilter;
-import com.google.common.hash.Funnels;
+import com.muyulu.aijavainterviewer.common.bloom.LocalResumeExistenceFilter;
+import com.muyulu.aijavainterviewer.common.bloom.RedisResumeExistenceFilter;
+import com.muyulu.aijavainterviewer.common.bloom.ResumeExistenceFilter;
+import com.muyulu.aijavainterviewer.common.bloom.TwoTierResumeExistenceFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
+/**
+ * 简历存在性过滤器配置
+ * resume.bloom.mode：local（本机 Guava，默认）、redis（Redisson 集群共享）、two-tier（本机在前、Redis 在后）
+ */
+@Slf4j
 @Configuration
 public class BloomFilterConfig {
 
     @Bean
-    public BloomFilter<String> resumeBloomFilter(
+    public ResumeExistenceFilter resumeExistenceFilter(
+            RedissonClient redissonClient,
+            @Value("${resume.bloom.mode:local}") String mode,
             @Value("${resume.bloom.expectedInsertions:10000}") long expectedInsertions,
-            @Value("${resume.bloom.fpp:0.01}") double falsePositiveProbability) {
-        return BloomFilter.create(
-                Funnels.stringFunnel(StandardCharsets.UTF_8),
-                expectedInsertions,
-                falsePositiveProbability
-        );
+            @Value("${resume.bloom.fpp:0.01}") double falsePositiveProbability,
+            @Value("${resume.bloom.snapshot-path:}") String snapshotPath,
+            @Value("${resume.bloom.snapshot-overlap-seconds:300}") long snapshotOverlapSeconds,
+            @Value("${resume.bloom.init-lock-wait-seconds:300}") long initLockWaitSeconds) {
+        log.info("Resume existence filter mode: {}", mode);
+        return switch (mode) {
+            case "redis" -> new RedisResumeExistenceFilter(
+                    redissonClient, expectedInsertions, falsePositiveProbability, initLockWaitSeconds);
+            case "two-tier" -> new TwoTierResumeExistenceFilter(
+                    new LocalResumeExistenceFilter(expectedInsertions, falsePositiveProbability,
+                            resolveSnapshotPath(snapshotPath), snapshotOverlapSeconds),
+                    new RedisResumeExistenceFilter(
+                            redissonClient, expectedInsertions, falsePositiveProbability, initLockWaitSeconds));
+            case "local" -> new LocalResumeExistenceFilter(expectedInsertions, falsePositiveProbability,
+                    resolveSnapshotPath(snapshotPath), snapshotOverlapSeconds);
+            default -> throw new IllegalArgumentException("Unknown resume.bloom.mode: " + mode);
+        };
     }
-}
 
+    private Path resolveSnapshotPath(String snapshotPath) {
+        return snapshotPath == null || snapshotPath.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "ai-interviewer", "resume-bloom.bin")
+                : Paths.get(snapshotPath);
+    }
+}
@@ -0,0 +1,60 @@
+package com.muyulu.aijavainterviewer.config;
+
+import com.muyulu.aijavainterviewer.common.ratelimit.AdaptiveConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.Modifier;
+
+/**
+ * 为所有 ChatModel Bean 套上自适应并发限制
+ * Agent、ChatClient 等最终都调用 ChatModel 的 call/stream，在这里统一代理即可覆盖全部大模型调用；
+ * 限制器通过 ObjectProvider 延迟获取，避免 BeanPostProcessor 过早初始化其他 Bean
+ */
+@Slf4j
+@Component
+public class ChatModelLimiterPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<AdaptiveConcurrencyLimiter> limiterProvider;
+    private final Environment environment;
+
+    public ChatModelLimiterPostProcessor(ObjectProvider<AdaptiveConcurrencyLimiter> limiterProvider,
+                                         Environment environment) {
+        this.limiterProvider = limiterProvider;
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof ChatModel) || !environment.getProperty("llm.limiter.enabled", Boolean.class, true)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        // 保留具体类型（如 DashScopeChatModel），final 类只能按接口代理
+        proxyFactory.setProxyTargetClass(!Modifier.isFinal(bean.getClass().getModifiers()));
+        proxyFactory.addAdvice(limitingInterceptor());
+        log.info("ChatModel 已启用自适应并发限制: {}", beanName);
+        return proxyFactory.getProxy();
+    }
+
+    private MethodInterceptor limitingInterceptor() {
+        return invocation -> {
+            String methodName = invocation.getMethod().getName();
+            if ("call".equals(methodName)) {
+                return limiterProvider.getObject().call(invocation::proceed);
+            }
+            if ("stream".equals(methodName)) {
+                Object result = invocation.proceed();
+                return result instanceof Flux<?> flux ? limiterProvider.getObject().guard(flux) : result;
+            }
+            return invocation.proceed();
+        };
+    }
+}
@@ -1,20 +1,40 @@
 package com.muyulu.aijavainterviewer.config;
 
+import com.muyulu.aijavainterviewer.common.cache.CachingEmbeddingModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RedissonClient;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.time.Duration;
+
 import static org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIndexType.HNSW;
 
 @Configuration
 public class PgVectorVectorStoreConfig {
 
     @Bean
-    public VectorStore pgVectorVectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel dashscopeEmbeddingModel) {
-        VectorStore vectorStore = PgVectorStore.builder(jdbcTemplate, dashscopeEmbeddingModel)
+    public VectorStore pgVectorVectorStore(
+            JdbcTemplate jdbcTemplate,
+            EmbeddingModel dashscopeEmbeddingModel,
+            RedissonClient redissonClient,
+            MeterRegistry meterRegistry,
+            @Value("${spring.ai.dashscope.embedding.options.model:text-embedding-v3}") String embeddingModelName,
+            @Value("${embedding.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${embedding.cache.local-max-mb:64}") long localMaxMb,
+            @Value("${embedding.cache.redis-enabled:true}") boolean redisEnabled,
+            @Value("${embedding.cache.redis-ttl-hours:168}") long redisTtlHours) {
+        // 查询向量缓存：相同的检索文本不再重复调用远程向量模型
+        EmbeddingModel embeddingModel = cacheEnabled
+                ? new CachingEmbeddingModel(dashscopeEmbeddingModel, redisEnabled ? redissonClient : null,
+                        embeddingModelName + ":1536", localMaxMb * 1024 * 1024, Duration.ofHours(redisTtlHours), meterRegistry)
+                : dashscopeEmbeddingModel;
+        VectorStore vectorStore = PgVectorStore.builder(jdbcTemplate, embeddingModel)
                 .dimensions(1536)                    // Optional: defaults to model dimensions or 1536
                 .distanceType(PgVectorStore.PgDistanceType.COSINE_DISTANCE)       // Optional: defaults to COSINE_DISTANCE
                 .indexType(HNSW)                     // Optional: defaults to HNSW
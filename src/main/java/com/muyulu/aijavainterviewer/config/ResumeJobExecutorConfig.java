@@ -0,0 +1,34 @@
+package com.muyulu.aijavainterviewer.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 简历异步处理线程池配置
+ * 线程数与队列长度都有上限，队列满时直接拒绝，由接口返回“系统繁忙”，不会无限堆积任务
+ */
+@Configuration
+public class ResumeJobExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor resumeJobExecutor(
+            @Value("${resume.job.core-size:4}") int coreSize,
+            @Value("${resume.job.max-size:8}") int maxSize,
+            @Value("${resume.job.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("resume-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // 停机时等待已提交的任务完成
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
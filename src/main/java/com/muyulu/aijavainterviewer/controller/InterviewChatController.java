@@ -27,6 +27,14 @@ public class InterviewChatController {
         limitType = RateLimit.LimitType.USER,
         message = "面试开始过于频繁，请稍后再试"
     )
+    @RateLimit(
+        name = "interview_stream",
+        capacity = 2,
+        mode = RateLimit.Mode.CONCURRENCY,
+        leaseSeconds = 300,
+        limitType = RateLimit.LimitType.USER,
+        message = "已有进行中的面试回复，请等待结束后再试"
+    )
     public Flux<String> startInterviewChat(HttpServletRequest request) {
         return interviewChatService.startInterviewChat(request);
     }
@@ -40,6 +48,14 @@ public class InterviewChatController {
         limitType = RateLimit.LimitType.USER,
         message = "回复过于频繁，请稍后再试"
     )
+    @RateLimit(
+        name = "interview_stream",
+        capacity = 2,
+        mode = RateLimit.Mode.CONCURRENCY,
+        leaseSeconds = 300,
+        limitType = RateLimit.LimitType.USER,
+        message = "已有进行中的面试回复，请等待结束后再试"
+    )
     public Flux<String> continueInterviewChat(HttpServletRequest request,
                                               @RequestParam("userInput") String userInput) {
         return interviewChatService.continueInterviewChat(request, userInput);
@@ -62,6 +78,14 @@ public class InterviewChatController {
         limitType = RateLimit.LimitType.USER,
         message = "问题池生成过于频繁，请稍后再试"
     )
+    @RateLimit(
+        name = "generate_question_pool",
+        capacity = 20,
+        mode = RateLimit.Mode.SLIDING_WINDOW,
+        windowSeconds = 3600,
+        limitType = RateLimit.LimitType.USER,
+        message = "问题池生成次数已达每小时上限，请稍后再试"
+    )
     public QuestionPoolVO generateQuestionPool(
             HttpServletRequest request,
             @RequestParam("resumeFile") MultipartFile resumeFile,
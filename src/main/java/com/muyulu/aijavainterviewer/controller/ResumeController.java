@@ -1,22 +1,22 @@
 package com.muyulu.aijavainterviewer.controller;
 
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
-import com.google.common.hash.BloomFilter;
 import com.muyulu.aijavainterviewer.common.annotation.RateLimit;
 import com.muyulu.aijavainterviewer.common.annotation.RequireLogin;
 import com.muyulu.aijavainterviewer.model.dto.ResumeAnalyzeRequest;
-import com.muyulu.aijavainterviewer.model.entity.Resume;
 import com.muyulu.aijavainterviewer.model.entity.User;
 import com.muyulu.aijavainterviewer.common.Result;
+import com.muyulu.aijavainterviewer.model.vo.ResumeJobVo;
 import com.muyulu.aijavainterviewer.model.vo.ResumeVo;
+import com.muyulu.aijavainterviewer.service.ResumeJobService;
 import com.muyulu.aijavainterviewer.service.ResumeService;
 import com.muyulu.aijavainterviewer.service.UserService;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.beans.BeanUtils;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/resume")
@@ -27,10 +27,9 @@ public class ResumeController {
     @Resource
     private UserService userService;
     @Resource
-    private BloomFilter<String> resumeBloomFilter;
+    private ResumeJobService resumeJobService;
 
     @PostMapping("/create")
-    @Transactional
     @RequireLogin
     @RateLimit(
         name = "resume_upload",
@@ -45,30 +44,50 @@ public class ResumeController {
         //分析简历
         ResumeAnalyzeRequest resumeAnalyzeRequest = new ResumeAnalyzeRequest(content);
         ResumeVo resumeVo = resumeService.getAnalyzedResume(resumeAnalyzeRequest.resumeContent());
-        Resume resume = new Resume();
-        BeanUtils.copyProperties(resumeVo, resume);
         //获取当前用户
         User currentUser = userService.getLoginUser(request);
-        String resumeId = file.getOriginalFilename() + "_" + currentUser.getId();
-        //更新用户简历id
-        currentUser.setResumeId(resumeId);
-        userService.updateById(currentUser);
-        resume.setResumeId(resumeId);
-        Resume oldResume = resumeService.getByResumeId(resume.getResumeId());
-        if(oldResume != null){
-            resumeService.updateByResumeId(resume);
-        }
-        else{
-            //存入缓存
-            resumeService.cacheResume(resume);
-            //更新布隆过滤器
-            resumeBloomFilter.put(resume.getResumeId());
-            //存入数据库
-            resumeService.save(resume);
-        }
+        //保存简历（仅此步骤在事务内）
+        resumeService.saveAnalyzedResume(currentUser, file.getOriginalFilename(), resumeVo);
         return Result.success("简历上传成功", resumeVo);
     }
 
+    /**
+     * 异步上传简历：文件落盘后立即返回任务，通过轮询或 SSE 获取处理进度
+     */
+    @PostMapping("/jobs")
+    @RequireLogin
+    @RateLimit(
+        name = "resume_upload",
+        capacity = 5,
+        rate = 1,
+        limitType = RateLimit.LimitType.USER,
+        message = "简历上传过于频繁，请稍后再试"
+    )
+    public Result<ResumeJobVo> submitJob(@RequestParam("file") MultipartFile file, HttpServletRequest request) {
+        User currentUser = userService.getLoginUser(request);
+        return Result.success("简历已提交处理", resumeJobService.submit(file, currentUser));
+    }
+
+    /**
+     * 轮询简历处理任务状态
+     */
+    @GetMapping("/jobs/{jobId}")
+    @RequireLogin
+    public Result<ResumeJobVo> getJob(@PathVariable("jobId") String jobId, HttpServletRequest request) {
+        User currentUser = userService.getLoginUser(request);
+        return Result.success(resumeJobService.getJob(jobId, currentUser.getId()));
+    }
+
+    /**
+     * 订阅简历处理任务进度（SSE）
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequireLogin
+    public SseEmitter subscribeJob(@PathVariable("jobId") String jobId, HttpServletRequest request) {
+        User currentUser = userService.getLoginUser(request);
+        return resumeJobService.subscribe(jobId, currentUser.getId());
+    }
+
     /**
      * 检查当前用户是否已经上传简历
      */
@@ -1,6 +1,7 @@
 package com.muyulu.aijavainterviewer.filter;
 
-import com.muyulu.aijavainterviewer.common.util.JwtUtil;
+import com.muyulu.aijavainterviewer.common.component.JwtPrincipal;
+import com.muyulu.aijavainterviewer.common.component.JwtTokenVerifier;
 import com.muyulu.aijavainterviewer.service.impl.UserServiceImpl;
 import jakarta.annotation.Resource;
 import jakarta.servlet.FilterChain;
@@ -22,7 +23,7 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Resource
-    private JwtUtil jwtUtil;
+    private JwtTokenVerifier jwtTokenVerifier;
     
     @Lazy
     @Resource
@@ -59,19 +60,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
             
-            if (jwtUtil.validateToken(token)) {
-                // Token 有效,将用户信息存入请求属性
-                try {
-                    Long userId = jwtUtil.getUserIdFromToken(token);
-                    String username = jwtUtil.getUsernameFromToken(token);
-                    
-                    // 将用户信息存入请求属性,供后续业务层使用
-                    request.setAttribute("userId", userId);
-                    request.setAttribute("username", username);
-                    log.info("Token验证成功,用户ID: {}, 用户名: {}", userId, username);
-                } catch (Exception e) {
-                    log.error("解析 JWT Token 失败", e);
-                }
+            // 只解析一次 Token，结果在本地缓存中复用
+            JwtPrincipal principal = jwtTokenVerifier.verify(token);
+            if (principal != null) {
+                // Token 有效,将用户信息存入请求属性,供后续业务层使用
+                request.setAttribute("userId", principal.userId());
+                request.setAttribute("username", principal.username());
+                log.info("Token验证成功,用户ID: {}, 用户名: {}", principal.userId(), principal.username());
             } else {
                 log.warn("Token验证失败");
             }
@@ -2,6 +2,20 @@ package com.muyulu.aijavainterviewer.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.muyulu.aijavainterviewer.model.entity.Resume;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDateTime;
 
 public interface ResumeMapper extends BaseMapper<Resume> {
+
+    /**
+     * 流式读取全部简历ID
+     */
+    Cursor<String> selectAllResumeIds();
+
+    /**
+     * 流式读取指定时间之后创建的简历ID
+     */
+    Cursor<String> selectResumeIdsCreatedSince(@Param("since") LocalDateTime since);
 }
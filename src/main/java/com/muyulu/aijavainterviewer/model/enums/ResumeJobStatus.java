@@ -0,0 +1,23 @@
+package com.muyulu.aijavainterviewer.model.enums;
+
+/**
+ * 简历异步处理任务状态
+ */
+public enum ResumeJobStatus {
+    // 排队中
+    PENDING,
+    // 提取文本
+    EXTRACTING,
+    // AI 分析
+    ANALYZING,
+    // 保存结果
+    PERSISTING,
+    // 处理成功
+    SUCCEEDED,
+    // 处理失败
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
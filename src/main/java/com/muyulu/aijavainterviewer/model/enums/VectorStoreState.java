@@ -0,0 +1,22 @@
+package com.muyulu.aijavainterviewer.model.enums;
+
+/**
+ * 知识库向量库状态
+ */
+public enum VectorStoreState {
+    // 向量表为空
+    NOT_LOADED,
+    // 正在加载文档
+    LOADING,
+    // 已有数据且最近一次加载完整
+    READY,
+    // 已有数据，但最近一次加载有失败批次或状态检查出错
+    DEGRADED;
+
+    /**
+     * 是否可以用于检索
+     */
+    public boolean isServing() {
+        return this == READY || this == DEGRADED;
+    }
+}
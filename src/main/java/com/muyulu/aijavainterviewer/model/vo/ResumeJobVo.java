@@ -0,0 +1,54 @@
+package com.muyulu.aijavainterviewer.model.vo;
+
+import com.muyulu.aijavainterviewer.model.enums.ResumeJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 简历异步处理任务 VO
+ * 每次状态变化都生成新对象，轮询与 SSE 推送读到的始终是完整快照
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeJobVo {
+
+    /**
+     * 任务ID
+     */
+    private String jobId;
+
+    /**
+     * 提交任务的用户ID
+     */
+    private Long userId;
+
+    /**
+     * 上传的文件名
+     */
+    private String fileName;
+
+    /**
+     * 当前状态
+     */
+    private ResumeJobStatus status;
+
+    /**
+     * 状态说明，失败时为失败原因
+     */
+    private String message;
+
+    /**
+     * 分析结果，仅在 SUCCEEDED 时有值
+     */
+    private ResumeVo resume;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+}
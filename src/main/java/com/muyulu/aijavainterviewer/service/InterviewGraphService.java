@@ -4,8 +4,6 @@ import cn.hutool.core.util.IdUtil;
 import com.muyulu.aijavainterviewer.graph.InterviewGraphState;
 import com.muyulu.aijavainterviewer.model.entity.Question;
 import com.muyulu.aijavainterviewer.model.entity.QuestionPool;
-import com.muyulu.aijavainterviewer.tool.FileToStringConverterTool;
-import io.swagger.v3.oas.models.security.SecurityScheme;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
@@ -25,14 +23,14 @@ import java.util.stream.Collectors;
 @Service
 public class InterviewGraphService {
     
-    private final FileToStringConverterTool fileConverter;
+    private final ResumeService resumeService;
     private final RagService ragService;
     private final ChatClient chatClient;
     
-    public InterviewGraphService(FileToStringConverterTool fileConverter, 
+    public InterviewGraphService(ResumeService resumeService,
                                 RagService ragService,
                                 @Qualifier("dashScopeChatModel") ChatModel chatModel) {
-        this.fileConverter = fileConverter;
+        this.resumeService = resumeService;
         this.ragService = ragService;
         this.chatClient = ChatClient.builder(chatModel).build();
     }
@@ -79,15 +77,12 @@ public class InterviewGraphService {
     
     /**
      * Node 1: 解析简历
-     * 复用 FileToStringConverterTool
+     * 复用 ResumeService.file2Content，与简历上传共用提取策略和解析缓存
      */
     private InterviewGraphState parseResume(InterviewGraphState state) {
         log.info("Node 1: 解析简历文件");
         
-        String resumeText = fileConverter.convertMultipartFileToString(
-                state.getResumeFile(), 
-                "TEXT"
-        );
+        String resumeText = resumeService.file2Content(state.getResumeFile());
         
         state.setResumeContent(resumeText);
         log.info("✓ 简历解析完成, 长度: {} 字符", resumeText.length());
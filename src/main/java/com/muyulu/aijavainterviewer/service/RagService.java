@@ -1,12 +1,14 @@
 package com.muyulu.aijavainterviewer.service;
 
+import com.muyulu.aijavainterviewer.common.cache.RagContextCache;
+import com.muyulu.aijavainterviewer.common.cache.ResumeKeywordCache;
+import com.muyulu.aijavainterviewer.common.component.VectorStoreReadiness;
+import com.muyulu.aijavainterviewer.common.retrieval.HybridRetriever;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.vectorstore.SearchRequest;
-import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -24,8 +26,11 @@ import java.util.stream.Collectors;
 @Service
 public class RagService {
 
-    private final VectorStore vectorStore;
+    private final HybridRetriever hybridRetriever;
     private final ChatClient keywordExtractionClient;
+    private final ResumeKeywordCache resumeKeywordCache;
+    private final RagContextCache ragContextCache;
+    private final VectorStoreReadiness vectorStoreReadiness;
 
     @Value("${rag.keyword-extraction.use-ai:true}")
     private boolean useAiExtraction;
@@ -64,9 +69,15 @@ public class RagService {
             """;
 
     
-    public RagService(VectorStore vectorStore, 
-                     @Qualifier("dashScopeChatModel") ChatModel chatModel) {
-        this.vectorStore = vectorStore;
+    public RagService(HybridRetriever hybridRetriever, 
+                     @Qualifier("dashScopeChatModel") ChatModel chatModel,
+                     ResumeKeywordCache resumeKeywordCache,
+                     RagContextCache ragContextCache,
+                     VectorStoreReadiness vectorStoreReadiness) {
+        this.hybridRetriever = hybridRetriever;
+        this.resumeKeywordCache = resumeKeywordCache;
+        this.ragContextCache = ragContextCache;
+        this.vectorStoreReadiness = vectorStoreReadiness;
         this.keywordExtractionClient = ChatClient.builder(chatModel)
                 .defaultSystem(KEYWORD_EXTRACTION_PROMPT)
                 .build();
@@ -80,26 +91,34 @@ public class RagService {
      * @return 相关文档内容列表
      */
     public List<String> searchRelevantKnowledge(String resumeContent, int topK) {
+        return searchRelevantKnowledge(resumeContent, null, topK);
+    }
+
+    /**
+     * 根据简历内容检索相关文档，可附加检索焦点（如面试官当前追问的问题）
+     *
+     * @param resumeContent 简历内容(用于提取技术栈关键词)
+     * @param focus 检索焦点，为 null 时只按简历检索
+     * @param topK 返回最相关的 K 个结果
+     * @return 相关文档内容列表
+     */
+    public List<String> searchRelevantKnowledge(String resumeContent, String focus, int topK) {
         long startTime = System.currentTimeMillis();
         log.debug("基于简历检索相关知识, topK: {}", topK);
         
         try {
             // 1. 从简历中提取关键技术点作为查询
             String query = extractTechKeywords(resumeContent);
+            if (focus != null && !focus.isBlank()) {
+                query = focus + "\n" + query;
+            }
             log.debug("提取的查询关键词: {}", query);
             
-            // 2. 构建搜索请求
-            SearchRequest searchRequest = SearchRequest.builder()
-                    .query(query)
-                    .topK(topK)
-                    .similarityThreshold(0.65)  // 提高相似度阈值，过滤低质量结果
-                    .build();
-            
-            // 3. 执行向量检索
-            List<Document> results = vectorStore.similaritySearch(searchRequest);
+            // 2. 执行混合检索（向量 + BM25 关键词，RRF 融合）
+            List<Document> results = hybridRetriever.search(query, topK);
             
             if (results.isEmpty()) {
-                log.warn("未找到相关知识文档, query: {}, threshold: 0.65", query);
+                log.warn("未找到相关知识文档, query: {}", query);
                 return List.of();
             }
             
@@ -140,13 +159,7 @@ public class RagService {
         log.debug("根据问题检索知识: {}", question);
         
         try {
-            SearchRequest searchRequest = SearchRequest.builder()
-                    .query(question)
-                    .topK(topK)
-                    .similarityThreshold(0.65)
-                    .build();
-            
-            List<Document> results = vectorStore.similaritySearch(searchRequest);
+            List<Document> results = hybridRetriever.search(question, topK);
             
             return results.stream()
                     .map(Document::getFormattedContent)
@@ -169,7 +182,38 @@ public class RagService {
         // 限制 topK 最大值，避免上下文过长
         int limitedTopK = Math.min(topK, 5);
         List<String> knowledgeDocs = searchRelevantKnowledge(resumeContent, limitedTopK);
-        
+        return formatRagContext(knowledgeDocs);
+    }
+
+    /**
+     * 构建面试会话的 RAG 上下文
+     * 同一会话复用已检索的知识片段，只有简历变化或上一个问题偏离已缓存片段时才重新检索
+     *
+     * @param chatId 对话ID
+     * @param resumeContent 简历内容
+     * @param lastQuestion 面试官上一个问题，可为 null
+     * @param topK 检索文档数量（建议 3-5）
+     * @return 格式化的知识上下文
+     */
+    public String buildRagContext(String chatId, String resumeContent, String lastQuestion, int topK) {
+        int limitedTopK = Math.min(topK, 5);
+        List<String> knowledgeDocs = ragContextCache.get(chatId, resumeContent, lastQuestion,
+                focus -> searchRelevantKnowledge(resumeContent, focus, limitedTopK));
+        return formatRagContext(knowledgeDocs);
+    }
+
+    /**
+     * 面试会话结束或重新开始时丢弃该会话缓存的知识片段
+     * @param chatId 对话ID
+     */
+    public void evictRagContext(String chatId) {
+        ragContextCache.evict(chatId);
+    }
+
+    /**
+     * 将知识片段格式化为提示词上下文
+     */
+    private String formatRagContext(List<String> knowledgeDocs) {
         if (knowledgeDocs.isEmpty()) {
             log.debug("RAG 检索未返回结果，使用默认上下文");
             return "";
@@ -200,6 +244,20 @@ public class RagService {
     public String extractKeywords(String resumeContent) {
         return extractTechKeywords(resumeContent);
     }
+
+    /**
+     * 简历上传后预先提取关键词写入缓存，之后的面试对话直接命中
+     */
+    public void prefetchKeywords(String resumeContent) {
+        if (!useAiExtraction || resumeContent == null || resumeContent.isEmpty()) {
+            return;
+        }
+        try {
+            extractTechKeywords(resumeContent);
+        } catch (Exception e) {
+            log.warn("预提取简历关键词失败: {}", e.getMessage());
+        }
+    }
     
     /**
      * 从简历内容提取技术关键词
@@ -210,10 +268,14 @@ public class RagService {
             return "Java 后端开发";
         }
         
-        // 策略1: 使用 AI 提取关键词（智能、准确）- 可配置
+        // 策略1: 使用 AI 提取关键词（智能、准确）- 可配置，按简历内容缓存
         if (useAiExtraction) {
             try {
-                String aiKeywords = extractKeywordsWithAI(resumeContent);
+                // 限制输入长度，避免 token 过多；缓存 Key 也按截断后的文本计算
+                String limitedContent = resumeContent.length() > maxInputLength
+                        ? resumeContent.substring(0, maxInputLength)
+                        : resumeContent;
+                String aiKeywords = resumeKeywordCache.get(limitedContent, () -> extractKeywordsWithAI(limitedContent));
                 if (aiKeywords != null && !aiKeywords.trim().isEmpty()) {
                     log.debug("✓ AI 提取技术关键词: {}", aiKeywords);
                     return aiKeywords.trim();
@@ -233,12 +295,7 @@ public class RagService {
      * 使用 AI 模型提取技术关键词
      * 优点：智能理解上下文，能识别新技术、框架别名等
      */
-    private String extractKeywordsWithAI(String resumeContent) {
-        // 限制输入长度，避免 token 过多
-        String limitedContent = resumeContent.length() > maxInputLength 
-                ? resumeContent.substring(0, maxInputLength) 
-                : resumeContent;
-        
+    private String extractKeywordsWithAI(String limitedContent) {
         long startTime = System.currentTimeMillis();
         
         String keywords = keywordExtractionClient.prompt()
@@ -334,19 +391,9 @@ public class RagService {
 
     /**
      * 检查向量库是否已初始化
+     * 读取加载流程维护的就绪状态，不访问向量库
      */
     public boolean isVectorStoreReady() {
-        try {
-            List<Document> results = vectorStore.similaritySearch(
-                SearchRequest.builder()
-                    .query("test")
-                    .topK(1)
-                    .build()
-            );
-            return !results.isEmpty();
-        } catch (Exception e) {
-            log.warn("向量库未就绪: {}", e.getMessage());
-            return false;
-        }
+        return vectorStoreReadiness.isServing();
     }
 }
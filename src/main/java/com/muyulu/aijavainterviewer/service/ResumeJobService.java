@@ -0,0 +1,33 @@
+package com.muyulu.aijavainterviewer.service;
+
+import com.muyulu.aijavainterviewer.model.entity.User;
+import com.muyulu.aijavainterviewer.model.vo.ResumeJobVo;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ResumeJobService {
+
+    /**
+     * 提交简历异步处理任务：文件落盘后立即返回任务，提取、分析、保存在后台线程池执行
+     * @param file 上传的简历文件
+     * @param user 当前登录用户
+     * @return 新建的任务
+     */
+    ResumeJobVo submit(MultipartFile file, User user);
+
+    /**
+     * 查询任务状态
+     * @param jobId 任务ID
+     * @param userId 当前用户ID，只能查询自己提交的任务
+     * @return 任务状态
+     */
+    ResumeJobVo getJob(String jobId, Long userId);
+
+    /**
+     * 订阅任务进度，每次状态变化推送一次 status 事件，任务结束后关闭连接
+     * @param jobId 任务ID
+     * @param userId 当前用户ID
+     * @return SSE 连接
+     */
+    SseEmitter subscribe(String jobId, Long userId);
+}
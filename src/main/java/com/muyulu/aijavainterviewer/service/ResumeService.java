@@ -3,7 +3,9 @@ package com.muyulu.aijavainterviewer.service;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.muyulu.aijavainterviewer.model.entity.Resume;
+import com.muyulu.aijavainterviewer.model.entity.User;
 import com.muyulu.aijavainterviewer.model.vo.ResumeVo;
+import com.muyulu.aijavainterviewer.tool.SpooledUpload;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -16,6 +18,13 @@ public interface ResumeService extends IService<Resume> {
      */
     String file2Content(MultipartFile multipartFile);
 
+    /**
+     * 将已落盘的简历文件转换为文本内容
+     * @param upload 落盘后的上传文件
+     * @return
+     */
+    String file2Content(SpooledUpload upload);
+
     /**
      * 分析简历内容并返回Resume对象
      * @param resumeContent 简历内容
@@ -23,6 +32,15 @@ public interface ResumeService extends IService<Resume> {
      */
     ResumeVo getAnalyzedResume(String resumeContent) throws GraphRunnerException;
 
+    /**
+     * 保存分析结果：更新用户简历id，新增或更新简历，并同步缓存与布隆过滤器
+     * 只有这一步在事务内执行
+     * @param user 上传简历的用户
+     * @param fileName 原始文件名
+     * @param resumeVo 分析结果
+     */
+    void saveAnalyzedResume(User user, String fileName, ResumeVo resumeVo);
+
     /**
      * 根据resumeId获取简历
      * @param resumeId
@@ -30,6 +48,13 @@ public interface ResumeService extends IService<Resume> {
      */
     Resume getByResumeId(String resumeId);
 
+    /**
+     * 获取面试对话使用的简历文本，优先读取缓存中预先生成的文本
+     * @param resumeId
+     * @return 简历文本，简历不存在时返回 null
+     */
+    String getResumePromptText(String resumeId);
+
     /**
      * 根据resumeId更新简历
      * @param resume
@@ -37,8 +62,8 @@ public interface ResumeService extends IService<Resume> {
     void updateByResumeId(Resume resume);
 
     /**
-     * Cache resume data into Redis using the configured hash structure.
-     * @param resume resume entity that has just been persisted
+     * 写入简历缓存（JSON 与提示词文本）
+     * @param resume 刚保存的简历
      */
     void cacheResume(Resume resume);
 
@@ -4,6 +4,7 @@ import cn.hutool.json.JSONUtil;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.muyulu.aijavainterviewer.assistant.InterViewAssistant;
 import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import com.muyulu.aijavainterviewer.common.ratelimit.AdaptiveConcurrencyLimiter;
 import com.muyulu.aijavainterviewer.graph.InterviewGraphState;
 import com.muyulu.aijavainterviewer.mapper.InterviewChatMapper;
 import com.muyulu.aijavainterviewer.model.entity.*;
@@ -41,9 +42,13 @@ public class InterviewChatServiceImpl extends ServiceImpl<InterviewChatMapper, I
     private ResumeService resumeService;
     @Resource
     private InterviewGraphService interviewGraphService;
+    @Resource
+    private AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
 
     @Override
     public Flux<String> startInterviewChat(HttpServletRequest request) {
+        //大模型并发已满时直接返回 429
+        adaptiveConcurrencyLimiter.checkAdmission();
         //初始化面试聊天记录
         InterviewChat interviewChat = new InterviewChat();
         User loginUser = userService.getLoginUser(request);
@@ -62,13 +67,7 @@ public class InterviewChatServiceImpl extends ServiceImpl<InterviewChatMapper, I
         //从redis中获取简历内容
         log.info("========== 开始面试流程 ==========");
         log.info("步骤1: 获取简历内容");
-        String resumeContent = redisTemplate.opsForValue().get(loginUser.getResumeId()); // 简历缓存key后续可统一
-        if(resumeContent == null){
-            //从数据库中读取简历内容
-            log.info("Redis中未找到简历，从数据库读取");
-            Resume resumeFromDB = resumeService.getByResumeId(loginUser.getResumeId());
-            resumeContent = JSONUtil.toJsonStr(resumeFromDB);
-        }
+        String resumeContent = resumeService.getResumePromptText(loginUser.getResumeId());
         
         log.info("步骤2: 使用RAG增强的AI面试官进行对话");
         String userInput = "面试官你好，这是我的简历内容：" + resumeContent;
@@ -81,15 +80,12 @@ public class InterviewChatServiceImpl extends ServiceImpl<InterviewChatMapper, I
 
     @Override
     public Flux<String> continueInterviewChat(HttpServletRequest request, String userInput) {
+        adaptiveConcurrencyLimiter.checkAdmission();
         User loginUser = userService.getLoginUser(request);
         log.info("用户 {} 继续面试，输入: {}", loginUser.getId(), userInput);
         
         // 获取简历内容
-        String resumeContent = redisTemplate.opsForValue().get(loginUser.getResumeId()); // 简历缓存key后续可统一
-        if(resumeContent == null){
-            Resume resumeFromDB = resumeService.getByResumeId(loginUser.getResumeId());
-            resumeContent = JSONUtil.toJsonStr(resumeFromDB);
-        }
+        String resumeContent = resumeService.getResumePromptText(loginUser.getResumeId());
         
         // 使用RAG增强的对话
         return interViewAssistant.chatStreamWithRag(
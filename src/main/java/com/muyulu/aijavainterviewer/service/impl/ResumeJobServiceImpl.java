@@ -0,0 +1,255 @@
+package com.muyulu.aijavainterviewer.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import com.muyulu.aijavainterviewer.common.exception.BusinessException;
+import com.muyulu.aijavainterviewer.common.exception.ResumeException;
+import com.muyulu.aijavainterviewer.model.entity.User;
+import com.muyulu.aijavainterviewer.model.enums.ResumeJobStatus;
+import com.muyulu.aijavainterviewer.model.vo.ResumeJobVo;
+import com.muyulu.aijavainterviewer.model.vo.ResumeVo;
+import com.muyulu.aijavainterviewer.service.ResumeJobService;
+import com.muyulu.aijavainterviewer.service.ResumeService;
+import com.muyulu.aijavainterviewer.tool.SpooledUpload;
+import com.muyulu.aijavainterviewer.tool.UploadSpooler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 简历异步处理服务
+ * 任务状态保存在本地缓存并同步到 Redis（带过期时间），其他实例收到轮询请求时从 Redis 读取；
+ * SSE 订阅只在执行任务的实例上推送，其他实例上的订阅按 Redis 中的状态推送一次后关闭
+ */
+@Slf4j
+@Service
+public class ResumeJobServiceImpl implements ResumeJobService {
+
+    private final ResumeService resumeService;
+    private final UploadSpooler uploadSpooler;
+    private final ThreadPoolTaskExecutor resumeJobExecutor;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration jobTtl;
+    private final long sseTimeoutMillis;
+
+    private final Cache<String, ResumeJobVo> jobs;
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public ResumeJobServiceImpl(
+            ResumeService resumeService,
+            UploadSpooler uploadSpooler,
+            ThreadPoolTaskExecutor resumeJobExecutor,
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${resume.job.ttl-minutes:30}") long ttlMinutes,
+            @Value("${resume.job.sse-timeout-seconds:300}") long sseTimeoutSeconds
+    ) {
+        this.resumeService = resumeService;
+        this.uploadSpooler = uploadSpooler;
+        this.resumeJobExecutor = resumeJobExecutor;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.jobTtl = Duration.ofMinutes(ttlMinutes);
+        this.sseTimeoutMillis = sseTimeoutSeconds * 1000;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobTtl)
+                .build();
+    }
+
+    @Override
+    public ResumeJobVo submit(MultipartFile file, User user) {
+        if (file == null || file.isEmpty()) {
+            throw ResumeException.uploadFailed("文件不能为空");
+        }
+        // 请求结束后 Servlet 容器会清理 multipart 临时文件，必须先落盘再交给后台线程
+        SpooledUpload upload;
+        try {
+            upload = uploadSpooler.spool(file);
+        } catch (IOException e) {
+            throw ResumeException.uploadFailed(e.getMessage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ResumeJobVo job = ResumeJobVo.builder()
+                .jobId(IdUtil.fastSimpleUUID())
+                .userId(user.getId())
+                .fileName(file.getOriginalFilename())
+                .status(ResumeJobStatus.PENDING)
+                .message("排队中")
+                .createTime(now)
+                .updateTime(now)
+                .build();
+        publish(job);
+
+        try {
+            resumeJobExecutor.execute(() -> run(job, upload, user));
+        } catch (TaskRejectedException e) {
+            upload.close();
+            publish(job.toBuilder()
+                    .status(ResumeJobStatus.FAILED)
+                    .message("系统繁忙，请稍后再试")
+                    .updateTime(LocalDateTime.now())
+                    .build());
+            log.warn("简历处理线程池已满，拒绝任务: {}", job.getJobId());
+            throw new BusinessException(BusinessException.ErrorCode.SYSTEM_ERROR.getCode(), "系统繁忙，请稍后再试");
+        }
+        log.info("简历处理任务已提交: jobId={}, userId={}, file={}", job.getJobId(), user.getId(), job.getFileName());
+        return job;
+    }
+
+    @Override
+    public ResumeJobVo getJob(String jobId, Long userId) {
+        ResumeJobVo job = findJob(jobId);
+        if (job == null || !Objects.equals(job.getUserId(), userId)) {
+            throw new ResumeException(BusinessException.ErrorCode.RESUME_NOT_FOUND, "简历处理任务不存在或已过期");
+        }
+        return job;
+    }
+
+    @Override
+    public SseEmitter subscribe(String jobId, Long userId) {
+        ResumeJobVo job = getJob(jobId, userId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        if (job.getStatus().isTerminal() || jobs.getIfPresent(jobId) == null) {
+            // 已结束或不在本实例执行，推送当前状态后直接关闭
+            send(emitter, job);
+            emitter.complete();
+            return emitter;
+        }
+
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(jobId, key -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> removeSubscriber(jobId, emitter));
+        emitter.onTimeout(() -> removeSubscriber(jobId, emitter));
+        emitter.onError(e -> removeSubscriber(jobId, emitter));
+
+        // 注册后再推送一次最新状态，避免注册期间错过状态变化
+        ResumeJobVo latest = jobs.getIfPresent(jobId);
+        send(emitter, latest != null ? latest : job);
+        if (latest != null && latest.getStatus().isTerminal()) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * 后台执行：提取 -> 分析 -> 保存，只有保存步骤在事务内
+     */
+    private void run(ResumeJobVo job, SpooledUpload upload, User user) {
+        ResumeJobVo current = job;
+        try (upload) {
+            current = advance(current, ResumeJobStatus.EXTRACTING, "正在提取简历文本");
+            String content = resumeService.file2Content(upload);
+
+            current = advance(current, ResumeJobStatus.ANALYZING, "正在分析简历");
+            ResumeVo resumeVo = resumeService.getAnalyzedResume(content);
+            if (resumeVo == null) {
+                throw ResumeException.parseFailed("分析结果为空");
+            }
+
+            current = advance(current, ResumeJobStatus.PERSISTING, "正在保存简历");
+            resumeService.saveAnalyzedResume(user, job.getFileName(), resumeVo);
+
+            publish(current.toBuilder()
+                    .status(ResumeJobStatus.SUCCEEDED)
+                    .message("简历上传成功")
+                    .resume(resumeVo)
+                    .updateTime(LocalDateTime.now())
+                    .build());
+            log.info("简历处理任务完成: {}", job.getJobId());
+        } catch (Exception e) {
+            log.error("简历处理任务失败: {}", job.getJobId(), e);
+            publish(current.toBuilder()
+                    .status(ResumeJobStatus.FAILED)
+                    .message(e.getMessage() != null ? e.getMessage() : "简历处理失败")
+                    .updateTime(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    private ResumeJobVo advance(ResumeJobVo job, ResumeJobStatus status, String message) {
+        ResumeJobVo next = job.toBuilder()
+                .status(status)
+                .message(message)
+                .updateTime(LocalDateTime.now())
+                .build();
+        publish(next);
+        return next;
+    }
+
+    /**
+     * 更新任务状态：写入本地缓存与 Redis，并推送给本实例上的订阅者
+     */
+    private void publish(ResumeJobVo job) {
+        jobs.put(job.getJobId(), job);
+        try {
+            redisTemplate.opsForValue().set(RedisKeyConstant.RESUME_JOB_PREFIX + job.getJobId(),
+                    objectMapper.writeValueAsString(job), jobTtl);
+        } catch (Exception e) {
+            log.warn("同步简历任务状态到 Redis 失败: {}", e.getMessage());
+        }
+
+        List<SseEmitter> emitters = subscribers.get(job.getJobId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(emitter, job);
+            if (job.getStatus().isTerminal()) {
+                emitter.complete();
+            }
+        }
+        if (job.getStatus().isTerminal()) {
+            subscribers.remove(job.getJobId());
+        }
+    }
+
+    private ResumeJobVo findJob(String jobId) {
+        ResumeJobVo job = jobs.getIfPresent(jobId);
+        if (job != null) {
+            return job;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(RedisKeyConstant.RESUME_JOB_PREFIX + jobId);
+            return json != null ? objectMapper.readValue(json, ResumeJobVo.class) : null;
+        } catch (JsonProcessingException e) {
+            log.warn("解析简历任务状态失败: {}", jobId, e);
+            return null;
+        }
+    }
+
+    private void send(SseEmitter emitter, ResumeJobVo job) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job));
+        } catch (IOException | IllegalStateException e) {
+            // 客户端已断开
+            removeSubscriber(job.getJobId(), emitter);
+        }
+    }
+
+    private void removeSubscriber(String jobId, SseEmitter emitter) {
+        List<SseEmitter> emitters = subscribers.get(jobId);
+        if (emitters != null) {
+            emitters.remove(emitter);
+        }
+    }
+}
@@ -3,26 +3,35 @@ package com.muyulu.aijavainterviewer.service.impl;
 import cn.hutool.json.JSONUtil;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.hash.BloomFilter;
 import com.muyulu.aijavainterviewer.assistant.ResumeAgent;
+import com.muyulu.aijavainterviewer.common.bloom.ResumeExistenceFilter;
+import com.muyulu.aijavainterviewer.common.cache.CacheInvalidator;
+import com.muyulu.aijavainterviewer.common.cache.ResumeCache;
+import com.muyulu.aijavainterviewer.common.component.ResumeAnalysisSingleFlight;
+import com.muyulu.aijavainterviewer.common.component.ResumeSectionizer;
 import com.muyulu.aijavainterviewer.common.exception.ResumeException;
 import com.muyulu.aijavainterviewer.mapper.ResumeMapper;
 import com.muyulu.aijavainterviewer.model.entity.Resume;
 import com.muyulu.aijavainterviewer.model.entity.User;
 import com.muyulu.aijavainterviewer.model.vo.ResumeVo;
+import com.muyulu.aijavainterviewer.service.RagService;
 import com.muyulu.aijavainterviewer.service.ResumeService;
 import com.muyulu.aijavainterviewer.service.UserService;
 import com.muyulu.aijavainterviewer.tool.FileToStringConverterTool;
+import com.muyulu.aijavainterviewer.tool.SpooledUpload;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @Slf4j
@@ -32,14 +41,28 @@ public class ResumeServiceImpl extends ServiceImpl<ResumeMapper, Resume> impleme
     private ResumeAgent resumeAgent;
     @Resource
     private FileToStringConverterTool fileToStringConverterTool;
-    @Autowired
-    private StringRedisTemplate redisTemplate;
     @Resource
-    private ObjectMapper objectMapper;
+    private ResumeCache resumeCache;
+    @Resource
+    private CacheInvalidator cacheInvalidator;
     @Resource
-    private BloomFilter<String> resumeBloomFilter;
+    private ResumeExistenceFilter resumeExistenceFilter;
     @Autowired
     private UserService userService;
+    @Resource
+    private ResumeSectionizer resumeSectionizer;
+    @Resource
+    private ResumeAnalysisSingleFlight resumeAnalysisSingleFlight;
+    @Resource
+    private MeterRegistry meterRegistry;
+    @Resource
+    private RagService ragService;
+    @Resource
+    private ThreadPoolTaskExecutor resumeJobExecutor;
+    @Value("${resume.sectionizer.enabled:true}")
+    private boolean sectionizerEnabled;
+    @Value("${resume.sectionizer.min-confidence:0.8}")
+    private double sectionizerMinConfidence;
 
     @Override
     public String file2Content(MultipartFile multipartFile) {
@@ -47,37 +70,41 @@ public class ResumeServiceImpl extends ServiceImpl<ResumeMapper, Resume> impleme
         return processResumeIntelligently(multipartFile);
     }
 
+    @Override
+    public String file2Content(SpooledUpload upload) {
+        log.info("开始转换简历文件: {}", upload.getOriginalFilename());
+        String content = fileToStringConverterTool.convertUploadToString(
+                upload, resolveExtractionType(upload.getOriginalFilename()));
+        if (content.startsWith("文件转换失败")) {
+            throw ResumeException.parseFailed(content);
+        }
+        return content;
+    }
+
     /**
      * 智能处理简历 - 自动选择最适合的提取方式
      */
     public String processResumeIntelligently(MultipartFile resumeFile) {
         log.info("智能处理简历文件: {}", resumeFile.getOriginalFilename());
+        return extractWithType(resumeFile, resolveExtractionType(resumeFile.getOriginalFilename()));
+    }
 
-        String filename = resumeFile.getOriginalFilename();
+    /**
+     * 根据文件类型选择最适合的提取方式
+     */
+    private String resolveExtractionType(String filename) {
         if (filename == null) {
             throw ResumeException.uploadFailed("文件名不能为空");
         }
 
         String extension = getFileExtension(filename).toLowerCase();
-        String extractionType;
-
-        // 根据文件类型选择最适合的提取方式
-        switch (extension) {
-            case "pdf" -> {
-                // PDF文件先尝试直接文本提取，如果内容太少再用OCR
-                String textContent = extractWithType(resumeFile, "TEXT");
-                if (textContent.trim().length() < 100) {
-                    log.info("PDF文本提取内容较少，尝试使用OCR");
-                    return extractWithType(resumeFile, "OCR");
-                }
-                return textContent;
-            }
-            case "png", "jpg", "jpeg", "gif", "bmp" -> {
-                // 图片文件直接使用OCR
-                return extractWithType(resumeFile, "OCR");
-            }
+        return switch (extension) {
+            // PDF文件逐页提取文本，只有文字过少的扫描页才使用OCR
+            case "pdf" -> "HYBRID";
+            // 图片文件直接使用OCR
+            case "png", "jpg", "jpeg", "gif", "bmp" -> "OCR";
             default -> throw ResumeException.uploadFailed("不支持的文件格式: " + extension);
-        }
+        };
     }
     private String extractWithType(MultipartFile file, String extractionType) {
         FileToStringConverterTool.Request request = new FileToStringConverterTool.Request(
@@ -95,52 +122,101 @@ public class ResumeServiceImpl extends ServiceImpl<ResumeMapper, Resume> impleme
 
     @Override
     public ResumeVo getAnalyzedResume(String resumeContent) throws GraphRunnerException {
-        String resultJson = resumeAgent.analyzeResume(resumeContent);
-        ResumeVo resumeVo = null;
-        resumeVo = JSONUtil.toBean(resultJson, ResumeVo.class);
-        return resumeVo;
+        //先按标题规则切分，格式规范的简历无需调用大模型
+        if (sectionizerEnabled) {
+            ResumeSectionizer.Result sections = resumeSectionizer.sectionize(resumeContent);
+            if (sections.confidence() >= sectionizerMinConfidence) {
+                log.info("简历规则分段成功, 跳过AI分析: confidence={}", sections.confidence());
+                meterRegistry.counter("resume.analysis", "path", "rule").increment();
+                return sections.toResumeVo();
+            }
+            log.info("简历规则分段置信度不足({}), 使用AI分析", sections.confidence());
+        }
+        //相同简历的并发分析合并为一次大模型调用
+        return resumeAnalysisSingleFlight.analyze(resumeContent, () -> {
+            meterRegistry.counter("resume.analysis", "path", "agent").increment();
+            String resultJson = resumeAgent.analyzeResume(resumeContent);
+            return JSONUtil.toBean(resultJson, ResumeVo.class);
+        });
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void saveAnalyzedResume(User user, String fileName, ResumeVo resumeVo) {
+        Resume resume = new Resume();
+        BeanUtils.copyProperties(resumeVo, resume);
+        String resumeId = fileName + "_" + user.getId();
+        //更新用户简历id
+        user.setResumeId(resumeId);
+        userService.updateById(user);
+        resume.setResumeId(resumeId);
+        Resume oldResume = getByResumeId(resume.getResumeId());
+        if (oldResume != null) {
+            updateByResumeId(resume);
+        } else {
+            //存入缓存
+            cacheResume(resume);
+            //更新布隆过滤器
+            resumeExistenceFilter.put(resume.getResumeId());
+            //存入数据库
+            save(resume);
+        }
+        //事务提交后异步预提取技术关键词，面试对话时直接命中缓存
+        String promptText = resumeCache.renderPromptText(resume);
+        cacheInvalidator.afterCommit(() -> prefetchKeywords(promptText));
+    }
+
+    private void prefetchKeywords(String promptText) {
+        try {
+            resumeJobExecutor.execute(() -> ragService.prefetchKeywords(promptText));
+        } catch (RejectedExecutionException e) {
+            log.debug("线程池繁忙, 跳过简历关键词预提取");
+        }
     }
 
     @Override
     public Resume getByResumeId(String resumeId) {
+        if (resumeId == null) {
+            return null;
+        }
 
         //先从缓存中获取
-        Map<Object, Object> resumeMap = redisTemplate.opsForHash().entries(resumeId);
-        if (resumeMap != null && !resumeMap.isEmpty()) {
-            try {
-                return objectMapper.convertValue(resumeMap, Resume.class);
-            } catch (IllegalArgumentException ex) {
-                log.error("Failed to convert cached resume {}", resumeId, ex);
-            }
+        Resume cached = resumeCache.get(resumeId);
+        if (cached != null) {
+            return cached;
         }
 
-        //通过布隆过滤器检查数据库中有没有这个数据
-        if (!resumeBloomFilter.mightContain(resumeId)) {
+        //通过布隆过滤器检查数据库中有没有这个数据（后台构建完成前直接查库）
+        if (!resumeExistenceFilter.mightContain(resumeId)) {
             log.debug("Bloom filter miss for resumeId={}, short-circuit DB lookup", resumeId);
             return null;
         }
 
-        //如果有，再从数据库中获取
-        return this.lambdaQuery().eq(Resume::getResumeId, resumeId).one();
+        //如果有，再从数据库中获取，并回填缓存
+        Resume resume = this.lambdaQuery().eq(Resume::getResumeId, resumeId).one();
+        resumeCache.put(resume);
+        return resume;
+    }
+
+    @Override
+    public String getResumePromptText(String resumeId) {
+        String promptText = resumeCache.getPromptText(resumeId);
+        if (promptText != null) {
+            return promptText;
+        }
+        Resume resume = getByResumeId(resumeId);
+        return resume != null ? resumeCache.renderPromptText(resume) : null;
     }
 
     @Override
     public void updateByResumeId(Resume resume) {
         //删除缓存
-        redisTemplate.delete(resume.getResumeId());
+        resumeCache.evict(resume.getResumeId());
         //更新数据库
         this.lambdaUpdate().eq(Resume::getResumeId, resume.getResumeId()).update(resume);
-        resumeBloomFilter.put(resume.getResumeId());
-        //延时双删
-        new Thread(() -> {
-            try {
-                Thread.sleep(500);
-                redisTemplate.delete(resume.getResumeId());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
-
+        resumeExistenceFilter.put(resume.getResumeId());
+        //事务提交后再删一次，并登记延时双删
+        cacheInvalidator.invalidateAfterCommit(ResumeCache.key(resume.getResumeId()));
     }
 
     @Override
@@ -149,8 +225,7 @@ public class ResumeServiceImpl extends ServiceImpl<ResumeMapper, Resume> impleme
             log.warn("Resume为空");
             return;
         }
-        String jsonStr = JSONUtil.toJsonStr(resume);
-        redisTemplate.opsForValue().set(resume.getResumeId(), jsonStr);
+        resumeCache.put(resume);
     }
 
     @Override
@@ -160,18 +235,8 @@ public class ResumeServiceImpl extends ServiceImpl<ResumeMapper, Resume> impleme
         if(resumeId == null){
             return false;
         }
-        //通过缓存
-        String resumeContent = redisTemplate.opsForValue().get(resumeId);
-        if (resumeContent == null) {
-            return false;
-        }
-        //通过布隆过滤器检查数据库中有没有这个数据
-        if (!resumeBloomFilter.mightContain(resumeId)) {
-            log.debug("Bloom filter miss for resumeId={}, short-circuit DB lookup", resumeId);
-            return false;
-        }
-        Resume resume = this.lambdaQuery().eq(Resume::getResumeId, resumeId).one();
-        return resume != null;
+        //依次通过缓存、布隆过滤器、数据库检查
+        return getByResumeId(resumeId) != null;
     }
 
 
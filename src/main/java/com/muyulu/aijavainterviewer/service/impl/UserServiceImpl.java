@@ -2,6 +2,10 @@ package com.muyulu.aijavainterviewer.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.muyulu.aijavainterviewer.common.cache.TokenBlacklistCache;
+import com.muyulu.aijavainterviewer.common.cache.UserCache;
+import com.muyulu.aijavainterviewer.common.component.JwtTokenVerifier;
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
 import com.muyulu.aijavainterviewer.common.exception.UserException;
 import com.muyulu.aijavainterviewer.mapper.UserMapper;
 import com.muyulu.aijavainterviewer.model.dto.UserDto;
@@ -24,17 +28,26 @@ import java.util.concurrent.TimeUnit;
 @Service
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService  {
 
+    /**
+     * 请求内缓存登录用户的属性名，同一请求多次获取时不重复加载
+     */
+    private static final String LOGIN_USER_ATTRIBUTE = "loginUser";
+
     @Resource
     private PasswordEncoder passwordEncoder;
     @Resource
     private UserMapper userMapper;
     @Resource
     private JwtUtil jwtUtil;
+    @Resource
+    private JwtTokenVerifier jwtTokenVerifier;
+    @Resource
+    private TokenBlacklistCache tokenBlacklistCache;
+    @Resource
+    private UserCache userCache;
     @Autowired
     private StringRedisTemplate redisTemplate;
 
-    private static final String TOKEN_BLACKLIST_PREFIX = "token:blacklist:";
-
     public User register(UserDto request) {
         LambdaQueryWrapper<User> query = new LambdaQueryWrapper<User>()
                 .eq(User::getUsername, request.username());
@@ -95,14 +108,18 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 过期时间设置为 Token 的剩余有效时间
         Long expiration = jwtUtil.getExpirationFromToken(token);
         if (expiration != null && expiration > 0) {
-            String blacklistKey = TOKEN_BLACKLIST_PREFIX + token;
+            String blacklistKey = RedisKeyConstant.TOKEN_BLACKLIST_PREFIX + token;
             redisTemplate.opsForValue().set(
                 blacklistKey, 
                 String.valueOf(userId), 
                 expiration, 
                 TimeUnit.MILLISECONDS
             );
+            // 更新本地黑名单并通知其他节点
+            tokenBlacklistCache.revoke(token, System.currentTimeMillis() + expiration);
         }
+        // 移除本地校验缓存
+        jwtTokenVerifier.evict(token);
         
         log.info("用户退出登录，用户ID: {}", userId);
     }
@@ -119,11 +136,10 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     }
 
     /**
-     * 检查 Token 是否在黑名单中
+     * 检查 Token 是否在黑名单中（优先查本地近缓存）
      */
     public boolean isTokenBlacklisted(String token) {
-        String blacklistKey = TOKEN_BLACKLIST_PREFIX + token;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(blacklistKey));
+        return tokenBlacklistCache.isRevoked(token);
     }
 
     /**
@@ -138,12 +154,29 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             throw UserException.notLogin();
         }
         
+        Object memo = request.getAttribute(LOGIN_USER_ATTRIBUTE);
+        if (memo instanceof User memoUser) {
+            userCache.recordMemoHit();
+            return memoUser;
+        }
+
         Long userId = (Long) userIdObj;
-        User user = this.getById(userId);
+        User user = userCache.get(userId, this::getById);
         if (user == null) {
             throw UserException.notFound();
         }
         
+        request.setAttribute(LOGIN_USER_ATTRIBUTE, user);
         return user;
     }
+
+    /**
+     * 更新用户信息，并失效用户缓存
+     */
+    @Override
+    public boolean updateById(User entity) {
+        boolean updated = super.updateById(entity);
+        userCache.evict(entity.getId());
+        return updated;
+    }
 }
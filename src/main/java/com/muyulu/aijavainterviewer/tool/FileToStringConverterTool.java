@@ -2,11 +2,11 @@ package com.muyulu.aijavainterviewer.tool;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson. annotation.JsonPropertyDescription;
+import com.muyulu.aijavainterviewer.common.cache.ExtractionCache;
 import lombok.extern.slf4j. Slf4j;
-import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Description;
@@ -15,15 +15,16 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
 import java.awt.image. BufferedImage;
-import java. io.ByteArrayInputStream;
 import java. io.File;
 import java.io.IOException;
 import java.io. InputStream;
+import java.io.OutputStream;
 import java.net. URL;
 import java.nio. file.Files;
-import java. nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 import java.util. function.Function;
 
 @Component
@@ -31,19 +32,27 @@ import java.util. function.Function;
 @Description("将PDF或图像文件转换为文本字符串，支持本地文件路径、URL和MultipartFile上传")
 public class FileToStringConverterTool implements Function<FileToStringConverterTool.Request, String> {
 
-    private final Tesseract tesseract;
+    private final TesseractOcrPool ocrPool;
+    private final PdfOcrPipeline pdfOcrPipeline;
+    private final ExtractionCache extractionCache;
+    private final UploadSpooler uploadSpooler;
+    private final int hybridMinCharsPerPage;
+    private final long pdfMaxMainMemoryBytes;
 
     public FileToStringConverterTool(
-            @Value("${tesseract.datapath:}") String tessDataPath,
-            @Value("${tesseract.language:eng}") String tessLanguage
+            TesseractOcrPool ocrPool,
+            PdfOcrPipeline pdfOcrPipeline,
+            ExtractionCache extractionCache,
+            UploadSpooler uploadSpooler,
+            @Value("${tesseract.hybrid.min-chars-per-page:50}") int hybridMinCharsPerPage,
+            @Value("${upload.pdf-max-main-memory-mb:16}") long pdfMaxMainMemoryMb
     ) {
-        this.tesseract = new Tesseract();
-        if (tessDataPath != null && !tessDataPath.isBlank()) {
-            this.tesseract.setDatapath(tessDataPath);
-        }
-        if (tessLanguage != null && ! tessLanguage.isBlank()) {
-            this.tesseract.setLanguage(tessLanguage);
-        }
+        this.ocrPool = ocrPool;
+        this.pdfOcrPipeline = pdfOcrPipeline;
+        this.extractionCache = extractionCache;
+        this.uploadSpooler = uploadSpooler;
+        this.hybridMinCharsPerPage = hybridMinCharsPerPage;
+        this.pdfMaxMainMemoryBytes = pdfMaxMainMemoryMb * 1024 * 1024;
     }
 
     public record Request(
@@ -56,7 +65,7 @@ public class FileToStringConverterTool implements Function<FileToStringConverter
             MultipartFile multipartFile,
 
             @JsonProperty(value = "extractionType")
-            @JsonPropertyDescription("提取类型：TEXT(纯文本)、MARKDOWN(保留格式)、OCR(图像识别)")
+            @JsonPropertyDescription("提取类型：TEXT(纯文本)、MARKDOWN(保留格式)、OCR(图像识别)、HYBRID(逐页文本提取，文字过少的页再OCR)")
             String extractionType
     ) {}
 
@@ -77,16 +86,35 @@ public class FileToStringConverterTool implements Function<FileToStringConverter
         }
     }
 
-    // 新增：处理MultipartFile的方法
+    // 新增：处理MultipartFile的方法，先落盘再基于临时文件解析
     public String convertMultipartFileToString(MultipartFile multipartFile, String extractionType) {
+        try (SpooledUpload upload = uploadSpooler.spool(multipartFile)) {
+            return convertUploadToString(upload, extractionType);
+        } catch (Exception e) {
+            log.error("上传文件转换失败", e);
+            return "文件转换失败: " + e.getMessage();
+        }
+    }
+
+    /**
+     * 解析已落盘的上传文件，临时文件由调用方负责关闭
+     * 落盘时已计算内容 SHA-256，直接作为解析缓存的 Key
+     */
+    public String convertUploadToString(SpooledUpload upload, String extractionType) {
         try {
             String normalizedType = extractionType != null ? extractionType.toUpperCase() : "TEXT";
-            String fileName = multipartFile.getOriginalFilename();
+            String fileName = upload.getOriginalFilename();
             String extension = getFileExtension(fileName != null ? fileName : "").toLowerCase();
+            File file = upload.getFile();
+            String mimeType = resolveMimeType(upload);
 
             return switch (extension) {
-                case "pdf" -> convertMultipartPdfToString(multipartFile, normalizedType);
-                case "png", "jpg", "jpeg", "gif", "bmp" -> convertMultipartImageToString(multipartFile, normalizedType);
+                case "pdf" -> extractionCache.get(upload.getSha256(), normalizedType,
+                        () -> convertPdfToString(file, normalizedType));
+                case "png", "jpg", "jpeg", "gif", "bmp" -> isTextExtraction(normalizedType)
+                        ? extractionCache.get(upload.getSha256(), normalizedType,
+                                () -> convertImageToString(file, mimeType, normalizedType))
+                        : convertImageToString(file, mimeType, normalizedType);
                 default -> "不支持的文件格式: " + extension;
             };
         } catch (Exception e) {
@@ -95,136 +123,61 @@ public class FileToStringConverterTool implements Function<FileToStringConverter
         }
     }
 
-    // 新增：处理MultipartFile PDF转换
-    private String convertMultipartPdfToString(MultipartFile multipartFile, String extractionType) throws IOException {
-        if ("OCR".equals(extractionType)) {
-            return convertMultipartPdfUsingOcr(multipartFile);
-        }
-        return convertMultipartPdfUsingPdfBox(multipartFile, extractionType);
-    }
-
-    // 新增：处理MultipartFile图像转换
-    private String convertMultipartImageToString(MultipartFile multipartFile, String extractionType) throws IOException {
-        if ("OCR".equals(extractionType)) {
-            return convertMultipartImageUsingOcr(multipartFile);
-        } else if ("TEXT".equals(extractionType) || "MARKDOWN".equals(extractionType)) {
-            return convertMultipartImageToBase64(multipartFile);
-        } else {
-            return "图像文件需要OCR才能提取文本内容";
-        }
-    }
-
-    // 新增：MultipartFile PDF OCR处理
-    private String convertMultipartPdfUsingOcr(MultipartFile multipartFile) throws IOException {
-        try (PDDocument document = PDDocument.load(multipartFile. getInputStream())) {
-            PDFRenderer renderer = new PDFRenderer(document);
-            StringBuilder result = new StringBuilder();
-            for (int pageIndex = 0; pageIndex < document.getNumberOfPages(); pageIndex++) {
-                BufferedImage pageImage = renderer.renderImageWithDPI(pageIndex, 300);
-                result.append(executeOcr(pageImage)).append("\n\n");
-            }
-            return result.toString();
-        } catch (TesseractException e) {
-            throw new IOException("PDF OCR失败", e);
-        }
-    }
-
-    // 新增：MultipartFile图像OCR处理
-    private String convertMultipartImageUsingOcr(MultipartFile multipartFile) throws IOException {
-        try (InputStream inputStream = multipartFile.getInputStream()) {
-            BufferedImage image = ImageIO.read(inputStream);
-            if (image == null) {
-                throw new IOException("无法读取图像内容");
-            }
-            return executeOcr(image);
-        } catch (TesseractException e) {
-            throw new IOException("图像OCR失败", e);
-        }
-    }
-
-    // 新增：MultipartFile PDF文本提取
-    private String convertMultipartPdfUsingPdfBox(MultipartFile multipartFile, String extractionType) throws IOException {
-        try (PDDocument document = PDDocument.load(multipartFile.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-
-            if ("MARKDOWN".equals(extractionType)) {
-                stripper.setSortByPosition(true);
-                stripper.setLineSeparator("\n");
-            }
-
-            return stripper.getText(document);
-        }
-    }
-
-    // 新增：MultipartFile图像转Base64
-    private String convertMultipartImageToBase64(MultipartFile multipartFile) throws IOException {
-        byte[] imageBytes = multipartFile.getBytes();
-        String base64 = Base64.getEncoder().encodeToString(imageBytes);
-        String mimeType = multipartFile.getContentType();
-
-        if (mimeType == null || mimeType.isBlank()) {
-            mimeType = getMimeType(multipartFile.getOriginalFilename());
-        }
-
-        return String.format("data:%s;base64,%s", mimeType, base64);
+    /**
+     * 图像的 TEXT/MARKDOWN 提取返回 Base64 数据，不写入缓存
+     */
+    private boolean isTextExtraction(String extractionType) {
+        return "OCR".equals(extractionType) || "HYBRID".equals(extractionType);
     }
 
-    // 保留原有的文件路径处理方法
+    // 保留原有的文件路径处理方法，URL 先下载落盘再解析
     public String file2Content(String filePath, String extractionType) {
         try {
             String normalizedType = extractionType != null ?  extractionType.toUpperCase() : "TEXT";
             String extension = getFileExtension(filePath).toLowerCase();
-            return switch (extension) {
-                case "pdf" -> convertPdfToString(filePath, normalizedType);
-                case "png", "jpg", "jpeg", "gif", "bmp" -> convertImageToString(filePath, normalizedType);
-                default -> "不支持的文件格式: " + extension;
-            };
+            if (isUrl(filePath) && isSupportedExtension(extension)) {
+                try (SpooledUpload download = uploadSpooler.spool(new URL(filePath))) {
+                    return convertFileToString(download.getFile(), extension, getMimeType(filePath), normalizedType);
+                }
+            }
+            return convertFileToString(new File(filePath), extension, getMimeType(filePath), normalizedType);
         } catch (Exception e) {
             log.error("文件转换失败", e);
             return "文件转换失败: " + e.getMessage();
         }
     }
 
-    private String convertPdfToString(String filePath, String extractionType) throws IOException {
-        if ("OCR".equals(extractionType)) {
-            return convertPdfUsingOcr(filePath);
+    private String convertFileToString(File file, String extension, String mimeType, String extractionType) throws IOException {
+        return switch (extension) {
+            case "pdf" -> convertPdfToString(file, extractionType);
+            case "png", "jpg", "jpeg", "gif", "bmp" -> convertImageToString(file, mimeType, extractionType);
+            default -> "不支持的文件格式: " + extension;
+        };
+    }
+
+    private String convertPdfToString(File file, String extractionType) throws IOException {
+        try (PDDocument document = loadPdfDocument(file)) {
+            if ("OCR".equals(extractionType)) {
+                return pdfOcrPipeline.ocrDocument(document);
+            } else if ("HYBRID".equals(extractionType)) {
+                return extractPdfHybrid(document);
+            }
+            return convertPdfUsingPdfBox(document, extractionType);
         }
-        return convertPdfUsingPdfBox(filePath, extractionType);
     }
 
-    private String convertImageToString(String filePath, String extractionType) throws IOException {
-        if ("OCR".equals(extractionType)) {
-            return convertImageUsingOcr(filePath);
+    private String convertImageToString(File file, String mimeType, String extractionType) throws IOException {
+        if ("OCR".equals(extractionType) || "HYBRID".equals(extractionType)) {
+            return convertImageUsingOcr(file);
         } else if ("TEXT".equals(extractionType) || "MARKDOWN".equals(extractionType)) {
-            return convertImageToBase64(filePath);
+            return convertImageToBase64(file, mimeType);
         } else {
             return "图像文件需要OCR才能提取文本内容";
         }
     }
 
-    private String convertPdfUsingOcr(String filePath) throws IOException {
-        try (PDDocument document = loadPdfDocument(filePath)) {
-            PDFRenderer renderer = new PDFRenderer(document);
-            StringBuilder result = new StringBuilder();
-            for (int pageIndex = 0; pageIndex < document.getNumberOfPages(); pageIndex++) {
-                BufferedImage pageImage = renderer.renderImageWithDPI(pageIndex, 300);
-                result.append(executeOcr(pageImage)).append("\n\n");
-            }
-            return result.toString();
-        } catch (TesseractException e) {
-            throw new IOException("PDF OCR失败", e);
-        }
-    }
-
-    private String convertImageUsingOcr(String filePath) throws IOException {
-        BufferedImage image;
-        if (isUrl(filePath)) {
-            try (InputStream inputStream = new URL(filePath).openStream()) {
-                image = ImageIO.read(inputStream);
-            }
-        } else {
-            image = ImageIO.read(new File(filePath));
-        }
+    private String convertImageUsingOcr(File file) throws IOException {
+        BufferedImage image = ImageIO.read(file);
         if (image == null) {
             throw new IOException("无法读取图像内容");
         }
@@ -232,56 +185,109 @@ public class FileToStringConverterTool implements Function<FileToStringConverter
             return executeOcr(image);
         } catch (TesseractException e) {
             throw new IOException("图像OCR失败", e);
+        } finally {
+            image.flush();
         }
     }
 
-    private String executeOcr(BufferedImage image) throws TesseractException {
-        synchronized (tesseract) {
-            return tesseract.doOCR(image);
+    /**
+     * 逐页混合提取：文档只加载一次，每页先用 PDFTextStripper 抽取文本，
+     * 文本字符数低于阈值的页（扫描页）再交给 OCR 流水线识别
+     */
+    private String extractPdfHybrid(PDDocument document) throws IOException {
+        int pageCount = document.getNumberOfPages();
+        String[] pageTexts = new String[pageCount];
+        List<Integer> scannedPages = new ArrayList<>();
+
+        PDFTextStripper stripper = new PDFTextStripper();
+        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+            // PDFTextStripper 的页码从 1 开始
+            stripper.setStartPage(pageIndex + 1);
+            stripper.setEndPage(pageIndex + 1);
+            String pageText = stripper.getText(document);
+            pageTexts[pageIndex] = pageText;
+            if (pageText.trim().length() < hybridMinCharsPerPage) {
+                scannedPages.add(pageIndex);
+            }
+        }
+
+        if (!scannedPages.isEmpty()) {
+            log.info("PDF 共 {} 页, 其中 {} 页文本过少, 使用OCR识别: {}", pageCount, scannedPages.size(), scannedPages);
+            Map<Integer, String> ocrTexts = pdfOcrPipeline.ocrPages(document, scannedPages);
+            ocrTexts.forEach((pageIndex, text) -> pageTexts[pageIndex] = text);
         }
+
+        return String.join("\n", pageTexts);
     }
 
-    private String convertPdfUsingPdfBox(String filePath, String extractionType) throws IOException {
-        try (PDDocument document = loadPdfDocument(filePath)) {
-            PDFTextStripper stripper = new PDFTextStripper();
+    private String executeOcr(BufferedImage image) throws TesseractException {
+        return ocrPool.doOcr(image);
+    }
 
-            if ("MARKDOWN".equals(extractionType)) {
-                stripper.setSortByPosition(true);
-                stripper.setLineSeparator("\n");
-            }
+    private String convertPdfUsingPdfBox(PDDocument document, String extractionType) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
 
-            return stripper.getText(document);
+        if ("MARKDOWN".equals(extractionType)) {
+            stripper.setSortByPosition(true);
+            stripper.setLineSeparator("\n");
         }
+
+        return stripper.getText(document);
     }
 
-    private String convertImageToBase64(String filePath) throws IOException {
-        byte[] imageBytes;
+    /**
+     * 流式 Base64 编码：文件按缓冲区读出后经编码流直接追加到预分配的 StringBuilder，
+     * 不再先整体读入字节数组、再生成一份编码后的副本
+     */
+    private String convertImageToBase64(File file, String mimeType) throws IOException {
+        String prefix = "data:" + mimeType + ";base64,";
+        long encodedLength = 4 * ((file.length() + 2) / 3);
+        StringBuilder dataUrl = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, prefix.length() + encodedLength));
+        dataUrl.append(prefix);
+
+        // Base64 输出只包含 ASCII 字符，逐字节转为 char 即可
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                dataUrl.append((char) b);
+            }
 
-        if (isUrl(filePath)) {
-            imageBytes = downloadFileFromUrl(filePath);
-        } else {
-            imageBytes = Files.readAllBytes(Paths.get(filePath));
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                for (int i = offset; i < offset + length; i++) {
+                    dataUrl.append((char) bytes[i]);
+                }
+            }
+        };
+        try (InputStream inputStream = Files.newInputStream(file.toPath());
+             OutputStream encoder = Base64.getEncoder().wrap(sink)) {
+            inputStream.transferTo(encoder);
         }
+        return dataUrl.toString();
+    }
 
-        String base64 = Base64.getEncoder().encodeToString(imageBytes);
-        String mimeType = getMimeType(filePath);
-
-        return String.format("data:%s;base64,%s", mimeType, base64);
+    /**
+     * 以混合内存模式加载 PDF：解析缓冲超过阈值后写入落盘目录下的临时文件
+     */
+    private PDDocument loadPdfDocument(File file) throws IOException {
+        MemoryUsageSetting memoryUsageSetting = MemoryUsageSetting.setupMixed(pdfMaxMainMemoryBytes)
+                .setTempDir(uploadSpooler.getSpoolDir().toFile());
+        return PDDocument.load(file, memoryUsageSetting);
     }
 
-    private PDDocument loadPdfDocument(String filePath) throws IOException {
-        if (isUrl(filePath)) {
-            byte[] pdfBytes = downloadFileFromUrl(filePath);
-            return PDDocument.load(pdfBytes);
-        } else {
-            return PDDocument. load(new File(filePath));
+    private String resolveMimeType(SpooledUpload upload) {
+        String mimeType = upload.getContentType();
+        if (mimeType == null || mimeType.isBlank()) {
+            mimeType = getMimeType(upload.getOriginalFilename());
         }
+        return mimeType;
     }
 
-    private byte[] downloadFileFromUrl(String url) throws IOException {
-        try (InputStream inputStream = new URL(url).openStream()) {
-            return inputStream. readAllBytes();
-        }
+    private boolean isSupportedExtension(String extension) {
+        return switch (extension) {
+            case "pdf", "png", "jpg", "jpeg", "gif", "bmp" -> true;
+            default -> false;
+        };
     }
 
     private String getFileExtension(String filePath) {
@@ -0,0 +1,108 @@
+package com.muyulu.aijavainterviewer.tool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+
+/**
+ * OCR 图像预处理
+ * 识别前先转灰度，再用 Otsu 自动阈值二值化，去掉彩色背景/底纹对 Tesseract 的干扰，
+ * 同时把每像素数据从 3-4 字节降到 1 位
+ */
+@Component
+public class OcrImagePreprocessor {
+
+    private final boolean binarize;
+
+    public OcrImagePreprocessor(@Value("${tesseract.preprocess.binarize:true}") boolean binarize) {
+        this.binarize = binarize;
+    }
+
+    /**
+     * 预处理图像，返回新图像，不修改原图
+     */
+    public BufferedImage preprocess(BufferedImage source) {
+        BufferedImage gray = toGrayscale(source);
+        if (!binarize) {
+            return gray;
+        }
+        BufferedImage binary = toBinary(gray, otsuThreshold(gray));
+        gray.flush();
+        return binary;
+    }
+
+    private BufferedImage toGrayscale(BufferedImage source) {
+        BufferedImage gray = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = gray.createGraphics();
+        try {
+            graphics.drawImage(source, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return gray;
+    }
+
+    /**
+     * Otsu 阈值：选择使前景/背景类间方差最大的灰度值
+     */
+    private int otsuThreshold(BufferedImage gray) {
+        byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        int[] histogram = new int[256];
+        for (byte pixel : pixels) {
+            histogram[pixel & 0xFF]++;
+        }
+
+        long total = pixels.length;
+        long weightedSum = 0;
+        for (int level = 0; level < 256; level++) {
+            weightedSum += (long) level * histogram[level];
+        }
+
+        long backgroundWeight = 0;
+        long backgroundSum = 0;
+        double maxVariance = -1;
+        int threshold = 127;
+        for (int level = 0; level < 256; level++) {
+            backgroundWeight += histogram[level];
+            if (backgroundWeight == 0) {
+                continue;
+            }
+            long foregroundWeight = total - backgroundWeight;
+            if (foregroundWeight == 0) {
+                break;
+            }
+            backgroundSum += (long) level * histogram[level];
+            double backgroundMean = (double) backgroundSum / backgroundWeight;
+            double foregroundMean = (double) (weightedSum - backgroundSum) / foregroundWeight;
+            double meanDiff = backgroundMean - foregroundMean;
+            double variance = (double) backgroundWeight * foregroundWeight * meanDiff * meanDiff;
+            if (variance > maxVariance) {
+                maxVariance = variance;
+                threshold = level;
+            }
+        }
+        return threshold;
+    }
+
+    private BufferedImage toBinary(BufferedImage gray, int threshold) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+
+        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        WritableRaster raster = binary.getRaster();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                row[x] = (pixels[offset + x] & 0xFF) > threshold ? 1 : 0;
+            }
+            raster.setPixels(0, y, width, 1, row);
+        }
+        return binary;
+    }
+}
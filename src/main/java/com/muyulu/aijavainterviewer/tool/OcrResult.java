@@ -0,0 +1,9 @@
+package com.muyulu.aijavainterviewer.tool;
+
+/**
+ * 单张图像的 OCR 结果
+ * @param text 识别文本（按行拼接）
+ * @param confidence Tesseract 行级平均置信度（0-100），按行文本长度加权；没有识别出文本时为 0
+ */
+public record OcrResult(String text, float confidence) {
+}
@@ -0,0 +1,171 @@
+package com.muyulu.aijavainterviewer.tool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * PDF 分页 OCR 流水线
+ * 渲染阶段与 OCR 阶段重叠执行：当前页提交 OCR 后立即渲染下一页，识别结果按页码顺序拼接。
+ * 已渲染但尚未识别完成的页数受信号量限制，页面图像在识别完成后立即释放，控制多页 PDF 的堆内存峰值。
+ * 分辨率自适应：先以最低 DPI 识别全部页面，只有平均置信度低于阈值的页才按更高 DPI 重新渲染识别，
+ * 多次识别的页取置信度最高的结果。
+ */
+@Slf4j
+@Component
+public class PdfOcrPipeline {
+
+    private final TesseractOcrPool ocrPool;
+    private final int[] dpiSteps;
+    private final float minConfidence;
+    private final int maxInFlightPages;
+    private final MeterRegistry meterRegistry;
+
+    public PdfOcrPipeline(
+            TesseractOcrPool ocrPool,
+            @Value("${tesseract.pipeline.dpi-steps:150,200,300}") int[] dpiSteps,
+            @Value("${tesseract.pipeline.min-confidence:70}") float minConfidence,
+            @Value("${tesseract.pipeline.max-in-flight-pages:0}") int maxInFlightPages,
+            MeterRegistry meterRegistry
+    ) {
+        if (dpiSteps.length == 0) {
+            throw new IllegalArgumentException("tesseract.pipeline.dpi-steps 不能为空");
+        }
+        this.ocrPool = ocrPool;
+        this.dpiSteps = Arrays.stream(dpiSteps).sorted().toArray();
+        this.minConfidence = minConfidence;
+        // 0 表示与 OCR 工作线程数一致，再多预渲染一页保证工作线程不空闲
+        this.maxInFlightPages = maxInFlightPages > 0 ? maxInFlightPages : ocrPool.getWorkerCount() + 1;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 对整份 PDF 执行 OCR
+     * @param document 已加载的 PDF 文档
+     * @return 按页码顺序拼接的识别文本
+     */
+    public String ocrDocument(PDDocument document) throws IOException {
+        List<Integer> pageIndexes = IntStream.range(0, document.getNumberOfPages()).boxed().toList();
+        Map<Integer, String> pageTexts = ocrPages(document, pageIndexes);
+
+        StringBuilder result = new StringBuilder();
+        for (String pageText : pageTexts.values()) {
+            result.append(pageText).append("\n\n");
+        }
+        return result.toString();
+    }
+
+    /**
+     * 对指定页执行自适应分辨率 OCR
+     * @param document 已加载的 PDF 文档
+     * @param pageIndexes 需要识别的页码（从 0 开始），结果按该顺序返回
+     * @return 页码 -> 识别文本
+     */
+    public Map<Integer, String> ocrPages(PDDocument document, List<Integer> pageIndexes) throws IOException {
+        long startTime = System.currentTimeMillis();
+        PDFRenderer renderer = new PDFRenderer(document);
+        Map<Integer, OcrResult> best = new LinkedHashMap<>();
+        Map<Integer, Integer> finalDpi = new HashMap<>();
+
+        List<Integer> pending = pageIndexes;
+        for (int step = 0; step < dpiSteps.length && !pending.isEmpty(); step++) {
+            int dpi = dpiSteps[step];
+            if (step > 0) {
+                log.debug("{} 页置信度低于 {}, 以 {} DPI 重新识别: {}", pending.size(), minConfidence, dpi, pending);
+                meterRegistry.counter("ocr.pipeline.retries", "dpi", String.valueOf(dpi)).increment(pending.size());
+            }
+            Map<Integer, OcrResult> passResults = ocrPass(renderer, pending, dpi);
+
+            List<Integer> lowConfidence = new ArrayList<>();
+            for (Map.Entry<Integer, OcrResult> entry : passResults.entrySet()) {
+                OcrResult previous = best.get(entry.getKey());
+                if (previous == null || entry.getValue().confidence() > previous.confidence()) {
+                    best.put(entry.getKey(), entry.getValue());
+                    finalDpi.put(entry.getKey(), dpi);
+                }
+                if (best.get(entry.getKey()).confidence() < minConfidence) {
+                    lowConfidence.add(entry.getKey());
+                }
+            }
+            pending = lowConfidence;
+        }
+
+        Map<Integer, String> results = new LinkedHashMap<>();
+        for (int pageIndex : pageIndexes) {
+            results.put(pageIndex, best.get(pageIndex).text());
+            meterRegistry.counter("ocr.pipeline.pages", "dpi", String.valueOf(finalDpi.get(pageIndex))).increment();
+        }
+        log.debug("PDF OCR 完成: {} 页, 最终DPI={}, 耗时 {} ms",
+                pageIndexes.size(), finalDpi, System.currentTimeMillis() - startTime);
+        return results;
+    }
+
+    /**
+     * 以固定 DPI 识别一批页面
+     * PDFBox 的 PDDocument/PDFRenderer 不是线程安全的，因此渲染在调用线程按顺序进行，
+     * 识别提交到 TesseractOcrPool 并行执行
+     */
+    Map<Integer, OcrResult> ocrPass(PDFRenderer renderer, List<Integer> pageIndexes, int dpi) throws IOException {
+        Semaphore inFlight = new Semaphore(maxInFlightPages);
+        Map<Integer, CompletableFuture<OcrResult>> futures = new LinkedHashMap<>();
+
+        try {
+            for (int pageIndex : pageIndexes) {
+                if (!inFlight.tryAcquire(ocrPool.getTimeoutSeconds(), TimeUnit.SECONDS)) {
+                    throw new IOException("PDF OCR超时: 等待第 " + (pageIndex + 1) + " 页渲染许可");
+                }
+                BufferedImage pageImage;
+                try {
+                    pageImage = renderer.renderImageWithDPI(pageIndex, dpi);
+                } catch (IOException | RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                CompletableFuture<OcrResult> ocrFuture = ocrPool.submit(pageImage);
+                ocrFuture.whenComplete((result, error) -> {
+                    // 识别完成（或被取消）后立即释放页面图像，为下一页腾出渲染名额
+                    pageImage.flush();
+                    inFlight.release();
+                });
+                futures.put(pageIndex, ocrFuture);
+            }
+
+            Map<Integer, OcrResult> results = new LinkedHashMap<>();
+            for (Map.Entry<Integer, CompletableFuture<OcrResult>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), ocrPool.await(entry.getValue()));
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(futures);
+            throw new IOException("PDF OCR被中断", e);
+        } catch (TesseractException e) {
+            cancelAll(futures);
+            throw new IOException("PDF OCR失败", e);
+        } catch (IOException | RuntimeException e) {
+            cancelAll(futures);
+            throw e;
+        }
+    }
+
+    private void cancelAll(Map<Integer, CompletableFuture<OcrResult>> futures) {
+        futures.values().forEach(future -> future.cancel(true));
+    }
+}
@@ -0,0 +1,64 @@
+package com.muyulu.aijavainterviewer.tool;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 已落盘的上传文件
+ * 由 UploadSpooler 创建，内容哈希在落盘过程中同步计算；关闭时删除临时文件
+ */
+@Slf4j
+@Getter
+public class SpooledUpload implements AutoCloseable {
+
+    /**
+     * 临时文件路径
+     */
+    private final Path path;
+
+    /**
+     * 原始文件名（用于判断文件类型）
+     */
+    private final String originalFilename;
+
+    /**
+     * 上传时声明的 MIME 类型，可能为空
+     */
+    private final String contentType;
+
+    /**
+     * 文件大小（字节）
+     */
+    private final long size;
+
+    /**
+     * 文件内容 SHA-256（十六进制）
+     */
+    private final String sha256;
+
+    SpooledUpload(Path path, String originalFilename, String contentType, long size, String sha256) {
+        this.path = path;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    public File getFile() {
+        return path.toFile();
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除上传临时文件失败: {}", path, e);
+        }
+    }
+}
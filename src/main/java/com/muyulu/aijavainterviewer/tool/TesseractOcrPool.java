@@ -0,0 +1,217 @@
+package com.muyulu.aijavainterviewer.tool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.Word;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tesseract OCR 工作池
+ * 每个工作线程独占一个 Tesseract 实例（线程封闭），多页/多用户的 OCR 可以按 CPU 核数并行执行，
+ * 不再依赖全局锁串行处理。识别前在工作线程内完成灰度/二值化预处理，并返回行级平均置信度
+ */
+@Slf4j
+@Component
+public class TesseractOcrPool {
+
+    private final String tessDataPath;
+    private final String tessLanguage;
+    private final long timeoutSeconds;
+    private final ThreadPoolExecutor executor;
+    private final ThreadLocal<Tesseract> workerTesseract;
+    private final OcrImagePreprocessor preprocessor;
+
+    private final Timer queueWaitTimer;
+    private final Timer ocrTimer;
+    private final Counter rejectedCounter;
+
+    public TesseractOcrPool(
+            @Value("${tesseract.datapath:}") String tessDataPath,
+            @Value("${tesseract.language:eng}") String tessLanguage,
+            @Value("${tesseract.pool.size:0}") int poolSize,
+            @Value("${tesseract.pool.queue-capacity:64}") int queueCapacity,
+            @Value("${tesseract.pool.timeout-seconds:120}") long timeoutSeconds,
+            OcrImagePreprocessor preprocessor,
+            MeterRegistry meterRegistry
+    ) {
+        this.tessDataPath = tessDataPath;
+        this.tessLanguage = tessLanguage;
+        this.timeoutSeconds = timeoutSeconds;
+        this.preprocessor = preprocessor;
+
+        // 0 表示按 CPU 核数自动设置
+        int workers = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "tesseract-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        // 每个工作线程第一次执行任务时创建自己的 Tesseract 实例，之后只在该线程内使用
+        this.workerTesseract = ThreadLocal.withInitial(this::createTesseract);
+
+        this.queueWaitTimer = Timer.builder("ocr.queue.wait")
+                .description("OCR 任务在队列中等待的时间")
+                .register(meterRegistry);
+        this.ocrTimer = Timer.builder("ocr.execution")
+                .description("单页 OCR 识别耗时")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ocr.rejected")
+                .description("因队列已满被拒绝的 OCR 任务数")
+                .register(meterRegistry);
+        Gauge.builder("ocr.queue.size", executor, e -> e.getQueue().size())
+                .description("等待中的 OCR 任务数")
+                .register(meterRegistry);
+        Gauge.builder("ocr.workers.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在执行 OCR 的工作线程数")
+                .register(meterRegistry);
+
+        log.info("Tesseract OCR 工作池已创建: workers={}, queueCapacity={}, timeout={}s",
+                workers, queueCapacity, timeoutSeconds);
+    }
+
+    /**
+     * 异步提交一页图像的 OCR 任务
+     * @param image 待识别图像
+     * @return 识别文本及置信度，队列已满时以 TesseractException 异常完成
+     */
+    public CompletableFuture<OcrResult> submit(BufferedImage image) {
+        CompletableFuture<OcrResult> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                if (future.isDone()) {
+                    // 调用方已超时或取消，跳过识别
+                    return;
+                }
+                try {
+                    future.complete(recognize(image));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    ocrTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("OCR 队列已满，拒绝新任务: queueSize={}", executor.getQueue().size());
+            future.completeExceptionally(new TesseractException("OCR队列已满，请稍后重试", e));
+        }
+        return future;
+    }
+
+    /**
+     * 同步识别一张图像
+     */
+    public String doOcr(BufferedImage image) throws TesseractException {
+        return await(submit(image)).text();
+    }
+
+    /**
+     * 等待 OCR 任务完成，统一转换超时、中断与执行异常
+     */
+    public <T> T await(CompletableFuture<T> future) throws TesseractException {
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TesseractException("OCR超时(" + timeoutSeconds + "s)", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TesseractException("OCR被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TesseractException tesseractException) {
+                throw tesseractException;
+            }
+            throw new TesseractException("OCR执行失败", cause);
+        }
+    }
+
+    /**
+     * 工作线程数
+     */
+    public int getWorkerCount() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * 单个 OCR 任务的最长等待时间(秒)
+     */
+    public long getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    /**
+     * 在工作线程内预处理并识别，按文本行汇总置信度
+     */
+    private OcrResult recognize(BufferedImage image) {
+        BufferedImage processed = preprocessor.preprocess(image);
+        try {
+            List<Word> lines = workerTesseract.get().getWords(processed, ITessAPI.TessPageIteratorLevel.RIL_TEXTLINE);
+            StringBuilder text = new StringBuilder();
+            double weightedConfidence = 0;
+            long totalChars = 0;
+            for (Word line : lines) {
+                String lineText = line.getText() == null ? "" : line.getText().stripTrailing();
+                if (lineText.isBlank()) {
+                    continue;
+                }
+                text.append(lineText).append('\n');
+                weightedConfidence += (double) line.getConfidence() * lineText.length();
+                totalChars += lineText.length();
+            }
+            float confidence = totalChars == 0 ? 0f : (float) (weightedConfidence / totalChars);
+            return new OcrResult(text.toString(), confidence);
+        } finally {
+            processed.flush();
+        }
+    }
+
+    private Tesseract createTesseract() {
+        Tesseract tesseract = new Tesseract();
+        if (tessDataPath != null && !tessDataPath.isBlank()) {
+            tesseract.setDatapath(tessDataPath);
+        }
+        if (tessLanguage != null && !tessLanguage.isBlank()) {
+            tesseract.setLanguage(tessLanguage);
+        }
+        log.debug("为工作线程 {} 创建 Tesseract 实例", Thread.currentThread().getName());
+        return tesseract;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
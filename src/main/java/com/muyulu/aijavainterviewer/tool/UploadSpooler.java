@@ -0,0 +1,114 @@
+package com.muyulu.aijavainterviewer.tool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 上传文件落盘组件
+ * 以固定大小的缓冲区把上传流/下载流写入临时文件，边写边计算 SHA-256 并校验大小上限，
+ * 后续解析直接基于磁盘文件进行，单次上传占用的堆内存与文件大小无关
+ */
+@Slf4j
+@Component
+public class UploadSpooler {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+
+    private final long maxFileSizeMb;
+    private final long maxBytes;
+    private final Path spoolDir;
+
+    public UploadSpooler(
+            @Value("${upload.max-file-size-mb:10}") long maxFileSizeMb,
+            @Value("${upload.spool-dir:}") String spoolDir
+    ) throws IOException {
+        this.maxFileSizeMb = maxFileSizeMb;
+        this.maxBytes = maxFileSizeMb * 1024 * 1024;
+        this.spoolDir = spoolDir == null || spoolDir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "ai-interviewer-upload")
+                : Paths.get(spoolDir);
+        Files.createDirectories(this.spoolDir);
+    }
+
+    /**
+     * 将上传文件写入临时文件
+     */
+    public SpooledUpload spool(MultipartFile multipartFile) throws IOException {
+        checkSize(multipartFile.getSize());
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            return spool(inputStream, multipartFile.getOriginalFilename(), multipartFile.getContentType());
+        }
+    }
+
+    /**
+     * 下载远程文件并写入临时文件
+     */
+    public SpooledUpload spool(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        // 服务端声明了长度时提前拒绝，未声明时在读取过程中校验
+        checkSize(connection.getContentLengthLong());
+        try (InputStream inputStream = connection.getInputStream()) {
+            return spool(inputStream, url.getPath(), connection.getContentType());
+        }
+    }
+
+    /**
+     * PDFBox 临时文件目录，与上传文件共用
+     */
+    public Path getSpoolDir() {
+        return spoolDir;
+    }
+
+    private SpooledUpload spool(InputStream inputStream, String filename, String contentType) throws IOException {
+        MessageDigest digest = newSha256Digest();
+        Path target = Files.createTempFile(spoolDir, "upload-", ".tmp");
+        long total = 0;
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                total += read;
+                checkSize(total);
+                digest.update(buffer, 0, read);
+                outputStream.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        log.debug("上传文件已落盘: {} -> {}, {} 字节", filename, target, total);
+        return new SpooledUpload(target, filename, contentType, total, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private void checkSize(long size) throws IOException {
+        if (size > maxBytes) {
+            throw new IOException("文件大小超过上限 " + maxFileSizeMb + "MB");
+        }
+    }
+
+    private MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支持 SHA-256", e);
+        }
+    }
+}
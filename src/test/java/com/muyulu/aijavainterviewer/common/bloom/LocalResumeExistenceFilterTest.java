@@ -0,0 +1,121 @@
+package com.muyulu.aijavainterviewer.common.bloom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+class LocalResumeExistenceFilterTest {
+
+    private static final long EXPECTED_INSERTIONS = 1_000;
+    private static final double FPP = 0.01;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 记录调用方式的简历ID数据源
+     */
+    private static class StubSource implements ResumeIdSource {
+
+        private final List<String> all;
+        private final List<String> recent;
+        private int streamAllCalls;
+        private LocalDateTime since;
+
+        StubSource(List<String> all, List<String> recent) {
+            this.all = all;
+            this.recent = recent;
+        }
+
+        @Override
+        public long streamAll(Consumer<String> sink) {
+            streamAllCalls++;
+            all.forEach(sink);
+            return all.size();
+        }
+
+        @Override
+        public long streamCreatedSince(LocalDateTime since, Consumer<String> sink) {
+            this.since = since;
+            recent.forEach(sink);
+            return recent.size();
+        }
+    }
+
+    @Test
+    void scalesOutAtNinetyPercentOfCapacity() {
+        LocalResumeExistenceFilter filter = new LocalResumeExistenceFilter(EXPECTED_INSERTIONS, FPP, null, 0);
+        filter.bootstrap(new StubSource(List.of(), List.of()));
+
+        List<String> ids = ids("resume-", 1_000);
+        ids.subList(0, 850).forEach(filter::put);
+        Assertions.assertEquals(1, filter.layerCount());
+
+        ids.subList(850, ids.size()).forEach(filter::put);
+        Assertions.assertEquals(2, filter.layerCount());
+        ids.forEach(id -> Assertions.assertTrue(filter.mightContain(id), id));
+    }
+
+    @Test
+    void restoresSnapshotAndCatchesUpIncrementally() {
+        Path snapshot = tempDir.resolve("resume-bloom.bin");
+        List<String> persisted = ids("old-", 1_500);
+        LocalResumeExistenceFilter first = new LocalResumeExistenceFilter(EXPECTED_INSERTIONS, FPP, snapshot, 60);
+        first.bootstrap(new StubSource(persisted, List.of()));
+        Assertions.assertEquals(2, first.layerCount());
+
+        LocalDateTime beforeRestore = LocalDateTime.now();
+        StubSource source = new StubSource(persisted, List.of("new-1", "new-2"));
+        LocalResumeExistenceFilter restored = new LocalResumeExistenceFilter(EXPECTED_INSERTIONS, FPP, snapshot, 60);
+        restored.bootstrap(source);
+
+        Assertions.assertEquals(0, source.streamAllCalls);
+        Assertions.assertNotNull(source.since);
+        Assertions.assertTrue(source.since.isBefore(beforeRestore.minusSeconds(59)));
+        Assertions.assertEquals(2, restored.layerCount());
+        persisted.forEach(id -> Assertions.assertTrue(restored.mightContain(id), id));
+        Assertions.assertTrue(restored.mightContain("new-1"));
+        Assertions.assertTrue(restored.mightContain("new-2"));
+    }
+
+    @Test
+    void keepsIdsPutBeforeSnapshotRestore() {
+        Path snapshot = tempDir.resolve("resume-bloom.bin");
+        new LocalResumeExistenceFilter(EXPECTED_INSERTIONS, FPP, snapshot, 60)
+                .bootstrap(new StubSource(ids("old-", 10), List.of()));
+
+        LocalResumeExistenceFilter restored = new LocalResumeExistenceFilter(EXPECTED_INSERTIONS, FPP, snapshot, 60);
+        // 事务尚未提交的新简历：快照中没有，增量补齐也查不到
+        restored.put("uncommitted-1");
+        restored.bootstrap(new StubSource(ids("old-", 10), List.of()));
+
+        Assertions.assertTrue(restored.mightContain("uncommitted-1"));
+        Assertions.assertTrue(restored.mightContain("old-3"));
+    }
+
+    @Test
+    void reloadsWhenSettingsChange() {
+        Path snapshot = tempDir.resolve("resume-bloom.bin");
+        new LocalResumeExistenceFilter(EXPECTED_INSERTIONS, FPP, snapshot, 60)
+                .bootstrap(new StubSource(ids("old-", 10), List.of()));
+
+        StubSource source = new StubSource(ids("old-", 10), List.of());
+        new LocalResumeExistenceFilter(EXPECTED_INSERTIONS * 2, FPP, snapshot, 60).bootstrap(source);
+
+        Assertions.assertEquals(1, source.streamAllCalls);
+        Assertions.assertNull(source.since);
+    }
+
+    private static List<String> ids(String prefix, int count) {
+        List<String> ids = new ArrayList<>(count);
+        IntStream.range(0, count).forEach(i -> ids.add(prefix + i));
+        return ids;
+    }
+}
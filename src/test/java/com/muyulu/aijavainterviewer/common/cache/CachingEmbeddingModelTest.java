@@ -0,0 +1,70 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+class CachingEmbeddingModelTest {
+
+    /**
+     * 记录每次远程调用的文本
+     */
+    private final List<List<String>> remoteCalls = new ArrayList<>();
+
+    private final EmbeddingModel remote = new EmbeddingModel() {
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<float[]> embed(List<String> texts) {
+            remoteCalls.add(texts);
+            return texts.stream().map(text -> new float[]{text.length(), 0.5f, -1.25f}).toList();
+        }
+    };
+
+    private final CachingEmbeddingModel model = new CachingEmbeddingModel(
+            remote, null, "test:3", 1024 * 1024, Duration.ofHours(1), new SimpleMeterRegistry());
+
+    @Test
+    void repeatedQueryHitsCache() {
+        float[] first = model.embed("Java 后端开发");
+        float[] second = model.embed("  Java   后端开发 ");
+
+        Assertions.assertArrayEquals(first, second);
+        Assertions.assertEquals(1, remoteCalls.size());
+    }
+
+    @Test
+    void batchOnlyEmbedsMisses() {
+        model.embed("Redis");
+        List<float[]> vectors = model.embed(List.of("Redis", "JVM", "JVM"));
+
+        Assertions.assertEquals(3, vectors.size());
+        Assertions.assertEquals(List.of(List.of("Redis"), List.of("JVM")), remoteCalls);
+        Assertions.assertArrayEquals(vectors.get(1), vectors.get(2));
+    }
+
+    @Test
+    void binaryRoundTrip() {
+        float[] vector = {0.1f, -2.5f, Float.MIN_VALUE, 1e10f};
+        byte[] bytes = CachingEmbeddingModel.encode(vector);
+
+        Assertions.assertEquals(vector.length * Float.BYTES, bytes.length);
+        Assertions.assertArrayEquals(vector, CachingEmbeddingModel.decode(bytes));
+    }
+}
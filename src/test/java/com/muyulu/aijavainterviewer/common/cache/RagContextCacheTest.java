@@ -0,0 +1,92 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class RagContextCacheTest {
+
+    private static final String RESUME = "【专业知识】\n熟悉 Redis 缓存、分布式锁、JVM 调优\n\n";
+
+    private final RagContextCache cache = new RagContextCache(new SimpleMeterRegistry(), 100, 60, 0.1, 4);
+
+    @Test
+    void reuseFragmentsWhileQuestionStaysOnTopic() {
+        List<String> focuses = new ArrayList<>();
+        RagContextCache.Retriever retriever = focus -> {
+            focuses.add(focus);
+            return List.of("[来源: redis.md]\nRedis 分布式锁可以基于 SET NX PX 实现，释放锁时需要校验持有者，避免误删其他线程的锁");
+        };
+
+        cache.get("chat-1", RESUME, null, retriever);
+        cache.get("chat-1", RESUME, "请说说 Redis 分布式锁如何避免误删其他线程的锁？", retriever);
+
+        Assertions.assertEquals(1, focuses.size());
+        Assertions.assertNull(focuses.get(0));
+    }
+
+    @Test
+    void refreshWhenQuestionDrifts() {
+        List<String> focuses = new ArrayList<>();
+        RagContextCache.Retriever retriever = focus -> {
+            focuses.add(focus);
+            return List.of("[来源: redis.md]\nRedis 分布式锁可以基于 SET NX PX 实现，释放锁时需要校验持有者");
+        };
+        String question = "讲一下 JVM 垃圾回收器 G1 的 Mixed GC 触发条件？";
+
+        cache.get("chat-2", RESUME, null, retriever);
+        cache.get("chat-2", RESUME, question, retriever);
+        // 已针对该问题检索过，不再重复检索
+        cache.get("chat-2", RESUME, question, retriever);
+
+        Assertions.assertEquals(2, focuses.size());
+        Assertions.assertEquals(question, focuses.get(1));
+    }
+
+    @Test
+    void refreshWhenResumeChanges() {
+        List<String> focuses = new ArrayList<>();
+        RagContextCache.Retriever retriever = focus -> {
+            focuses.add(focus);
+            return List.of("片段");
+        };
+
+        cache.get("chat-3", RESUME, null, retriever);
+        cache.get("chat-3", RESUME + "【项目经验】\n秒杀系统\n\n", null, retriever);
+
+        Assertions.assertEquals(2, focuses.size());
+    }
+
+    @Test
+    void evictForcesFreshRetrieval() {
+        List<String> focuses = new ArrayList<>();
+        RagContextCache.Retriever retriever = focus -> {
+            focuses.add(focus);
+            return List.of("片段");
+        };
+
+        cache.get("chat-evict", RESUME, null, retriever);
+        cache.evict("chat-evict");
+        cache.get("chat-evict", RESUME, null, retriever);
+
+        Assertions.assertEquals(2, focuses.size());
+    }
+
+    @Test
+    void retryAfterEmptyFirstRetrieval() {
+        List<String> focuses = new ArrayList<>();
+        RagContextCache.Retriever retriever = focus -> {
+            focuses.add(focus);
+            return focuses.size() == 1 ? List.of() : List.of("片段");
+        };
+
+        Assertions.assertTrue(cache.get("chat-empty", RESUME, null, retriever).isEmpty());
+        Assertions.assertEquals(List.of("片段"), cache.get("chat-empty", RESUME, null, retriever));
+        Assertions.assertEquals(List.of("片段"), cache.get("chat-empty", RESUME, null, retriever));
+
+        Assertions.assertEquals(2, focuses.size());
+    }
+}
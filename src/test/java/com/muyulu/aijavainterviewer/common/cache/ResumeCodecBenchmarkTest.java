@@ -0,0 +1,38 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import cn.hutool.json.JSONUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muyulu.aijavainterviewer.model.entity.Resume;
+import com.muyulu.aijavainterviewer.support.BenchmarkSupport;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 简历缓存编解码基准
+ * 对比 ResumeCodec（预绑定类型的 Jackson Reader/Writer）与原先 hutool JSONUtil 的编解码吞吐；往返一致性见 ResumeCodecTest。
+ * 默认跳过：mvn test -Dtest=ResumeCodecBenchmarkTest -Dbenchmark=true
+ */
+class ResumeCodecBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURE_ROUNDS = 100_000;
+
+    private final ResumeCodec codec = new ResumeCodec(new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void codecThroughput() {
+        BenchmarkSupport.assumeEnabled();
+        Resume resume = ResumeCodecTest.sampleResume();
+        String json = codec.encode(resume);
+        String hutoolJson = JSONUtil.toJsonStr(resume);
+
+        measure("jackson encode", () -> codec.encode(resume));
+        measure("jackson decode", () -> codec.decode(json));
+        measure("hutool encode", () -> JSONUtil.toJsonStr(resume));
+        measure("hutool decode", () -> JSONUtil.toBean(hutoolJson, Resume.class));
+        measure("prompt render", () -> codec.renderPromptText(resume));
+    }
+
+    private void measure(String name, Runnable task) {
+        BenchmarkSupport.measure(name, WARMUP_ROUNDS, MEASURE_ROUNDS, task);
+    }
+}
@@ -0,0 +1,41 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muyulu.aijavainterviewer.model.entity.Resume;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+class ResumeCodecTest {
+
+    private final ResumeCodec codec = new ResumeCodec(new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void roundTrip() {
+        Resume resume = sampleResume();
+        Resume decoded = codec.decode(codec.encode(resume));
+
+        Assertions.assertEquals(resume, decoded);
+    }
+
+    @Test
+    void renderPromptText() {
+        String text = codec.renderPromptText(sampleResume());
+
+        Assertions.assertTrue(text.contains("【项目经验】"));
+        Assertions.assertTrue(text.contains("Redis + Lua 库存扣减"));
+    }
+
+    static Resume sampleResume() {
+        Resume resume = new Resume();
+        resume.setId(1867530000000000001L);
+        resume.setResumeId("张三_简历.pdf_1867530000000000001");
+        resume.setProfessionalKnowledge("熟悉 Java 集合、JUC 并发、JVM 调优；熟悉 Spring Boot、MyBatis、Redis、Kafka");
+        resume.setProjectExperience("在线面试系统：负责 RAG 检索模块设计与实现，使用 pgvector；秒杀系统：Redis + Lua 库存扣减");
+        resume.setInternshipExperience("XX科技 Java 后端实习生 2023.06-2023.09，负责订单服务开发");
+        resume.setCreateTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        resume.setUpdateTime(LocalDateTime.of(2025, 1, 2, 10, 0));
+        return resume;
+    }
+}
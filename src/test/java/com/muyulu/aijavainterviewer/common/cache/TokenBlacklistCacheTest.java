@@ -0,0 +1,108 @@
+package com.muyulu.aijavainterviewer.common.cache;
+
+import com.muyulu.aijavainterviewer.common.constant.RedisKeyConstant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.api.listener.StatusListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 两个节点共用一个模拟的 RTopic：节点 A 注销后，节点 B 通过广播消息在本地判定为已注销
+ */
+class TokenBlacklistCacheTest {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJ1c2VySWQiOjF9.signature";
+
+    private final List<MessageListener<String>> messageListeners = new CopyOnWriteArrayList<>();
+    private final List<StatusListener> statusListeners = new CopyOnWriteArrayList<>();
+
+    private StringRedisTemplate redisTemplateA;
+    private StringRedisTemplate redisTemplateB;
+    private TokenBlacklistCache nodeA;
+    private TokenBlacklistCache nodeB;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RTopic topic = Mockito.mock(RTopic.class);
+        Mockito.when(topic.addListener(Mockito.eq(String.class), Mockito.any(MessageListener.class))).thenAnswer(invocation -> {
+            messageListeners.add(invocation.getArgument(1));
+            return messageListeners.size();
+        });
+        Mockito.when(topic.addListener(Mockito.any(StatusListener.class))).thenAnswer(invocation -> {
+            statusListeners.add(invocation.getArgument(0));
+            return 100 + statusListeners.size();
+        });
+        Mockito.when(topic.publish(Mockito.any())).thenAnswer(invocation -> {
+            String message = invocation.getArgument(0);
+            messageListeners.forEach(listener -> listener.onMessage(RedisKeyConstant.TOKEN_BLACKLIST_TOPIC, message));
+            return (long) messageListeners.size();
+        });
+        RedissonClient redissonClient = Mockito.mock(RedissonClient.class);
+        Mockito.when(redissonClient.getTopic(Mockito.anyString(), Mockito.any())).thenReturn(topic);
+
+        redisTemplateA = emptyRedis();
+        redisTemplateB = emptyRedis();
+        nodeA = new TokenBlacklistCache(redisTemplateA, redissonClient, new SimpleMeterRegistry(), 0);
+        nodeB = new TokenBlacklistCache(redisTemplateB, redissonClient, new SimpleMeterRegistry(), 0);
+        nodeA.start();
+        nodeB.start();
+        // 同步执行首次对账，使两个节点都进入本地判定
+        ReflectionTestUtils.invokeMethod(nodeA, "resync");
+        ReflectionTestUtils.invokeMethod(nodeB, "resync");
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+    }
+
+    @Test
+    void revokeIsBroadcastToOtherNodes() {
+        Assertions.assertFalse(nodeB.isRevoked(TOKEN));
+
+        nodeA.revoke(TOKEN, System.currentTimeMillis() + 60_000);
+
+        Assertions.assertTrue(nodeA.isRevoked(TOKEN));
+        Assertions.assertTrue(nodeB.isRevoked(TOKEN));
+        Mockito.verify(redisTemplateB, Mockito.never()).hasKey(Mockito.anyString());
+    }
+
+    @Test
+    void expiredRevocationIsIgnored() {
+        nodeA.revoke(TOKEN, System.currentTimeMillis() - 1);
+
+        Assertions.assertFalse(nodeB.isRevoked(TOKEN));
+    }
+
+    @Test
+    void resubscribeTriggersResync() {
+        Mockito.clearInvocations(redisTemplateB);
+
+        statusListeners.forEach(listener -> listener.onSubscribe(RedisKeyConstant.TOKEN_BLACKLIST_TOPIC));
+
+        Mockito.verify(redisTemplateB, Mockito.timeout(1_000)).scan(Mockito.any(ScanOptions.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StringRedisTemplate emptyRedis() {
+        Cursor<String> cursor = Mockito.mock(Cursor.class);
+        StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        Mockito.when(redisTemplate.scan(Mockito.any(ScanOptions.class))).thenReturn(cursor);
+        return redisTemplate;
+    }
+}
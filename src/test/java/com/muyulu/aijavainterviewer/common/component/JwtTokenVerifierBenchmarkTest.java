@@ -0,0 +1,101 @@
+package com.muyulu.aijavainterviewer.common.component;
+
+import com.muyulu.aijavainterviewer.common.util.JwtUtil;
+import com.muyulu.aijavainterviewer.support.BenchmarkSupport;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Token 校验基准
+ * 对比原先每个请求 validateToken + getUserIdFromToken + getUsernameFromToken（三次解析验签，
+ * 每次都重新构建签名密钥与解析器）与 JwtTokenVerifier（单次解析 + 本地缓存）的单请求认证开销。
+ * 计时部分默认跳过：mvn test -Dtest=JwtTokenVerifierBenchmarkTest -Dbenchmark=true
+ */
+class JwtTokenVerifierBenchmarkTest {
+
+    private static final String SECRET = "YourSuperSecretKeyForJWT2025MustBeAtLeast256BitsLongForHS256Algorithm";
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURE_ROUNDS = 100_000;
+
+    private JwtUtil jwtUtil;
+    private JwtTokenVerifier verifier;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600L);
+        jwtUtil.init();
+        verifier = new JwtTokenVerifier(jwtUtil, new SimpleMeterRegistry(), 10_000, 300);
+        token = jwtUtil.generateToken(1867530000000000001L, "张三");
+    }
+
+    @Test
+    void verifyToken() {
+        JwtPrincipal principal = verifier.verify(token);
+
+        Assertions.assertNotNull(principal);
+        Assertions.assertEquals(1867530000000000001L, principal.userId());
+        Assertions.assertEquals("张三", principal.username());
+        Assertions.assertSame(principal, verifier.verify(token));
+        Assertions.assertNull(verifier.verify(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    void legacyParseMatchesVerifier() {
+        JwtPrincipal principal = verifier.verify(token);
+
+        Assertions.assertTrue(legacyValidate(token));
+        Assertions.assertEquals(principal.userId(), Long.valueOf(legacyParse(token).get("userId").toString()));
+        Assertions.assertEquals(principal.username(), legacyParse(token).get("username").toString());
+    }
+
+    @Test
+    void authThroughput() {
+        BenchmarkSupport.assumeEnabled();
+        measure("legacy 3x parse", () -> {
+            if (legacyValidate(token)) {
+                Long.valueOf(legacyParse(token).get("userId").toString());
+                legacyParse(token).get("username").toString();
+            }
+        });
+        measure("single parse", () -> jwtUtil.parseToken(token));
+        measure("verifier cached", () -> verifier.verify(token));
+    }
+
+    /**
+     * 原 JwtUtil.validateToken 的逻辑
+     */
+    private boolean legacyValidate(String token) {
+        try {
+            return !legacyParse(token).getExpiration().before(new Date());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * 原 JwtUtil.parseToken 的逻辑：每次解析都重新派生密钥并构建解析器
+     */
+    private Claims legacyParse(String token) {
+        return Jwts.parser()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private void measure(String name, Runnable task) {
+        BenchmarkSupport.measure(name, WARMUP_ROUNDS, MEASURE_ROUNDS, task);
+    }
+}
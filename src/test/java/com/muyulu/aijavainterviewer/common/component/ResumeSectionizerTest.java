@@ -0,0 +1,66 @@
+package com.muyulu.aijavainterviewer.common.component;
+
+import com.muyulu.aijavainterviewer.model.vo.ResumeVo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ResumeSectionizerTest {
+
+    private final ResumeSectionizer sectionizer = new ResumeSectionizer();
+
+    @Test
+    void sectionizeChineseResume() {
+        String content = """
+                张三
+                电话：13800000000
+                【教育背景】
+                XX大学 计算机科学与技术 本科 2020-2024
+                一、专业技能
+                熟悉 Java 集合、JUC 并发、JVM 调优
+                熟悉 Spring Boot、MyBatis、Redis
+                项目经验：
+                在线面试系统 负责 RAG 检索模块设计与实现，使用 pgvector
+                秒杀系统 使用 Redis + Lua 实现库存扣减
+                实习经历
+                XX科技 Java 后端实习生 2023.06-2023.09 负责订单服务开发
+                自我评价
+                热爱技术
+                """;
+
+        ResumeSectionizer.Result result = sectionizer.sectionize(content);
+        ResumeVo resumeVo = result.toResumeVo();
+
+        Assertions.assertTrue(result.confidence() >= 0.8);
+        Assertions.assertTrue(resumeVo.getProfessionalKnowledge().contains("JUC"));
+        Assertions.assertTrue(resumeVo.getProjectExperience().contains("秒杀系统"));
+        Assertions.assertTrue(resumeVo.getInternshipExperience().contains("订单服务"));
+        Assertions.assertFalse(resumeVo.getInternshipExperience().contains("热爱技术"));
+    }
+
+    @Test
+    void sectionizeEnglishResume() {
+        String content = """
+                John Doe
+                ## Skills
+                Java, Spring Boot, Kafka, Redis, MySQL tuning
+                Projects
+                Interview platform with RAG retrieval and streaming chat
+                Work Experience
+                Backend intern at ACME building payment services
+                Education
+                BS Computer Science
+                """;
+
+        ResumeSectionizer.Result result = sectionizer.sectionize(content);
+
+        Assertions.assertTrue(result.confidence() >= 0.8);
+        Assertions.assertTrue(result.toResumeVo().getProjectExperience().contains("RAG"));
+    }
+
+    @Test
+    void lowConfidenceWithoutHeadings() {
+        String content = "一段没有小标题的简历文本，混合介绍了项目、技能和实习内容，需要交给大模型分析";
+
+        Assertions.assertTrue(sectionizer.sectionize(content).confidence() < 0.8);
+    }
+}
@@ -0,0 +1,132 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import com.muyulu.aijavainterviewer.common.exception.OverloadException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long SLOW_MILLIS = 60_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shedsWhenFullAndAdmitsAfterRelease() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 2, 2, SLOW_MILLIS, 0);
+        Disposable first = limiter.guard(Flux.never()).subscribe();
+        Disposable second = limiter.guard(Flux.never()).subscribe();
+
+        Assertions.assertEquals(2, gauge("llm.concurrency.inflight"));
+        Assertions.assertThrows(OverloadException.class, limiter::checkAdmission);
+        Assertions.assertThrows(OverloadException.class, () -> limiter.guard(Flux.just("x")).blockLast());
+
+        first.dispose();
+        limiter.checkAdmission();
+        Assertions.assertEquals("x", limiter.guard(Flux.just("x")).blockLast());
+        second.dispose();
+        Assertions.assertEquals(0, gauge("llm.concurrency.inflight"));
+    }
+
+    @Test
+    void backsOffMultiplicativelyOnSlowResponse() throws Throwable {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 20, 0, 0);
+
+        limiter.call(() -> {
+            TimeUnit.MILLISECONDS.sleep(2);
+            return "ok";
+        });
+
+        Assertions.assertEquals(9.0, gauge("llm.concurrency.limit"), 1e-9);
+        Assertions.assertEquals(1.0, meterRegistry.get("llm.concurrency.limit.decreases").counter().count());
+    }
+
+    @Test
+    void backsOffOnOverloadErrorButNotOnOtherErrors() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 20, SLOW_MILLIS, 0);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> limiter.call(() -> {
+            throw new IllegalArgumentException("bad prompt");
+        }));
+        Assertions.assertEquals(10.0, gauge("llm.concurrency.limit"), 1e-9);
+
+        Assertions.assertThrows(TimeoutException.class, () -> limiter.call(() -> {
+            throw new TimeoutException("read timed out");
+        }));
+        Assertions.assertEquals(9.0, gauge("llm.concurrency.limit"), 1e-9);
+    }
+
+    @Test
+    void backsOffOnOverloadErrorAfterFirstToken() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 20, SLOW_MILLIS, 0);
+        Flux<String> stream = Flux.concat(Flux.just("token"), Flux.error(new TimeoutException("read timed out")));
+
+        Assertions.assertThrows(RuntimeException.class, () -> limiter.guard(stream).blockLast());
+
+        Assertions.assertEquals(9.0, gauge("llm.concurrency.limit"), 1e-9);
+        Assertions.assertEquals(0, gauge("llm.concurrency.inflight"));
+    }
+
+    @Test
+    void neverBacksOffBelowMinLimit() throws Throwable {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 2, 20, 0, 0);
+
+        limiter.call(() -> {
+            TimeUnit.MILLISECONDS.sleep(2);
+            return "ok";
+        });
+
+        Assertions.assertEquals(2.0, gauge("llm.concurrency.limit"), 1e-9);
+    }
+
+    @Test
+    void increasesAdditivelyOnlyWhenNearLimit() throws Throwable {
+        AdaptiveConcurrencyLimiter idle = limiter(10, 2, 20, SLOW_MILLIS, 0);
+        idle.call(() -> "ok");
+        Assertions.assertEquals(10.0, gauge("llm.concurrency.limit"), 1e-9);
+
+        SimpleMeterRegistry busyRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter busy = new AdaptiveConcurrencyLimiter(busyRegistry, 2, 1, 20, SLOW_MILLIS, 0.9, 0, 0, 60);
+        busy.call(() -> "ok");
+        Assertions.assertEquals(2.5, busyRegistry.get("llm.concurrency.limit").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void queuedCallTimesOutOrProceedsOnRelease() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, SLOW_MILLIS, 50);
+        Disposable holder = limiter.guard(Flux.never()).subscribe();
+
+        Assertions.assertThrows(OverloadException.class, () -> limiter.call(() -> "late"));
+
+        AdaptiveConcurrencyLimiter patient = limiter(1, 1, 1, SLOW_MILLIS, 5_000);
+        Disposable patientHolder = patient.guard(Flux.never()).subscribe();
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return patient.call(() -> "queued");
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assertions.assertFalse(queued.isDone());
+        patientHolder.dispose();
+
+        Assertions.assertEquals("queued", queued.get(1, TimeUnit.SECONDS));
+        holder.dispose();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max, long latencyThresholdMillis, long queueTimeoutMillis) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, initial, min, max, latencyThresholdMillis, 0.9,
+                10, queueTimeoutMillis, 60);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
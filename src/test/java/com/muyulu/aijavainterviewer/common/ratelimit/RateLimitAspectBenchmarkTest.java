@@ -0,0 +1,139 @@
+package com.muyulu.aijavainterviewer.common.ratelimit;
+
+import com.muyulu.aijavainterviewer.common.annotation.RateLimit;
+import com.muyulu.aijavainterviewer.support.BenchmarkSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 限流切面开销基准
+ * 对比原先每次调用反射取注解、拼接 Key、解析 X-Forwarded-For 的做法与 RateLimitRegistry 预解析描述的单次调用开销；
+ * Redis 以不可用的 Mock 代替，限流器走本地令牌桶，只衡量切面自身的开销。
+ * 计时部分默认跳过：mvn test -Dtest=RateLimitAspectBenchmarkTest -Dbenchmark=true
+ */
+class RateLimitAspectBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 50_000;
+    private static final int MEASURE_ROUNDS = 500_000;
+
+    private RateLimitRegistry registry;
+    private RateLimiterEngine engine;
+    private MockHttpServletRequest request;
+    private Method userMethod;
+    private Method ipMethod;
+
+    static class SampleController {
+
+        @RateLimit(name = "bench_user", capacity = 1_000_000, rate = 1_000_000, limitType = RateLimit.LimitType.USER)
+        public void user() {
+        }
+
+        @RateLimit(name = "bench_ip", capacity = 1_000_000, rate = 1_000_000, limitType = RateLimit.LimitType.IP)
+        public void ip() {
+        }
+
+        @RateLimit(name = "bench_stream", capacity = 20, rate = 5, limitType = RateLimit.LimitType.USER)
+        @RateLimit(name = "bench_stream", capacity = 2, mode = RateLimit.Mode.CONCURRENCY, limitType = RateLimit.LimitType.USER)
+        public void stream() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        RRateLimiter redisLimiter = Mockito.mock(RRateLimiter.class);
+        Mockito.when(redisLimiter.trySetRate(Mockito.any(), Mockito.anyLong(), Mockito.anyLong(), Mockito.any()))
+                .thenThrow(new RedisConnectionException("redis down"));
+        RedissonClient redissonClient = Mockito.mock(RedissonClient.class);
+        Mockito.when(redissonClient.getRateLimiter(Mockito.anyString())).thenReturn(redisLimiter);
+
+        engine = new RateLimiterEngine(redissonClient, Mockito.mock(StringRedisTemplate.class), new SimpleMeterRegistry(),
+                0.1, 3600, 10_000, 30);
+        registry = new RateLimitRegistry(new DefaultListableBeanFactory(), engine);
+        userMethod = SampleController.class.getMethod("user");
+        ipMethod = SampleController.class.getMethod("ip");
+
+        request = new MockHttpServletRequest();
+        request.setAttribute("userId", 1867530000000000001L);
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1");
+    }
+
+    @Test
+    void descriptorKeysMatchLegacyKeys() {
+        Assertions.assertEquals(legacyKey(userMethod), registry.get(userMethod).get(0).resolveKey(request));
+        Assertions.assertEquals(legacyKey(ipMethod), registry.get(ipMethod).get(0).resolveKey(request));
+        Assertions.assertTrue(engine.tryAcquire(registry.get(userMethod).get(0), legacyKey(userMethod)));
+    }
+
+    @Test
+    void concurrencyLimitRunsBeforeRateLimits() throws NoSuchMethodException {
+        Method streamMethod = SampleController.class.getMethod("stream");
+        List<RateLimitDescriptor> descriptors = registry.get(streamMethod);
+
+        Assertions.assertEquals(2, descriptors.size());
+        Assertions.assertEquals(RateLimit.Mode.CONCURRENCY, descriptors.get(0).mode());
+        Assertions.assertEquals(RateLimit.Mode.TOKEN_BUCKET, descriptors.get(1).mode());
+        Assertions.assertEquals("rate_limit:concurrency:bench_stream:user:1867530000000000001",
+                descriptors.get(0).resolveKey(request));
+    }
+
+    @Test
+    void aspectOverhead() {
+        BenchmarkSupport.assumeEnabled();
+        measure("legacy user key", () -> legacyKey(userMethod));
+        measure("legacy ip key", () -> legacyKey(ipMethod));
+        measure("registry user key", () -> registry.get(userMethod).get(0).resolveKey(request));
+        measure("registry ip key", () -> registry.get(ipMethod).get(0).resolveKey(request));
+        measure("registry + local", () -> {
+            RateLimitDescriptor descriptor = registry.get(userMethod).get(0);
+            engine.tryAcquire(descriptor, descriptor.resolveKey(request));
+        });
+    }
+
+    /**
+     * 原 RateLimitAspect.buildRateLimitKey 的逻辑
+     */
+    private String legacyKey(Method method) {
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        String name = rateLimit.name();
+        if (name.isEmpty()) {
+            name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+        String suffix = switch (rateLimit.limitType()) {
+            case USER -> {
+                Object userId = request.getAttribute("userId");
+                yield userId != null ? ":user:" + userId : ":anonymous";
+            }
+            case IP -> {
+                String ip = request.getHeader("X-Forwarded-For");
+                if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+                    ip = request.getHeader("X-Real-IP");
+                }
+                if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+                    ip = request.getRemoteAddr();
+                }
+                if (ip != null && ip.contains(",")) {
+                    ip = ip.split(",")[0].trim();
+                }
+                yield ":ip:" + ip;
+            }
+            case GLOBAL -> ":global";
+        };
+        return "rate_limit:" + name + suffix;
+    }
+
+    private void measure(String name, Runnable task) {
+        BenchmarkSupport.measure(name, WARMUP_ROUNDS, MEASURE_ROUNDS, task);
+    }
+}
@@ -0,0 +1,207 @@
+package com.muyulu.aijavainterviewer.common.retrieval;
+
+import com.muyulu.aijavainterviewer.support.BenchmarkSupport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 混合检索召回率 / 延迟基准
+ * 使用带标注的面试知识片段与查询集，比较：
+ * 1. 向量检索在 0.65 阈值下无结果（专有名词类查询的常见情况，这里用空结果模拟）时的召回；
+ * 2. BM25 单路召回；
+ * 3. 向量结果质量较差（相关片段排在第 5 位）时 RRF 融合后的召回。
+ * 延迟部分把语料放大到上万个片段，测量 BM25 检索与 RRF 融合的单次耗时，默认跳过：
+ * mvn test -Dtest=HybridRetrievalBenchmarkTest -Dbenchmark=true
+ */
+class HybridRetrievalBenchmarkTest {
+
+    private static final int TOP_K = 3;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURE_ROUNDS = 10_000;
+
+    private static final List<Document> CORPUS = List.of(
+            doc("chm", "ConcurrentHashMap 实现原理",
+                    "JDK 8 的 ConcurrentHashMap 取消了分段锁，使用 CAS + synchronized 保证并发安全。"
+                            + "桶为空时通过 CAS 写入首节点，桶非空时对首节点加 synchronized；扩容时多线程协助迁移。"),
+            doc("hashmap", "HashMap 扩容机制",
+                    "HashMap 默认容量 16，负载因子 0.75，元素数超过阈值时扩容为原来的两倍。"
+                            + "JDK 8 扩容时按高位拆分链表，链表长度超过 8 且容量达到 64 时转为红黑树。"),
+            doc("mvcc", "InnoDB 多版本并发控制",
+                    "MVCC 通过隐藏列 trx_id、roll_pointer 与 undo log 版本链实现，读操作依据 Read View 判断可见性。"
+                            + "可重复读隔离级别下事务第一次快照读时生成 Read View。"),
+            doc("btree-index", "MySQL 索引结构",
+                    "InnoDB 使用 B+树 作为索引结构，聚簇索引叶子节点存储整行数据，二级索引叶子节点存储主键，"
+                            + "通过二级索引查询非索引列时需要回表，覆盖索引可以避免回表。"),
+            doc("redis-lock", "Redis 分布式锁",
+                    "使用 SET key value NX PX 加锁，value 为请求唯一标识；释放锁时用 Lua 脚本校验持有者再删除，"
+                            + "避免误删其他客户端的锁。Redisson 的看门狗会自动续期。"),
+            doc("cache-penetration", "缓存穿透",
+                    "缓存穿透指查询不存在的数据，请求每次都打到数据库。可以缓存空值，"
+                            + "或者使用布隆过滤器在查询前判断数据是否可能存在。"),
+            doc("cache-avalanche", "缓存雪崩与击穿",
+                    "缓存雪崩是大量缓存同时过期，可为过期时间加随机值；缓存击穿是热点 Key 过期瞬间大量请求访问数据库，"
+                            + "可以使用互斥锁重建缓存或逻辑过期。"),
+            doc("g1", "G1 垃圾回收器",
+                    "G1 将堆划分为多个 Region，Young GC 回收年轻代 Region；并发标记结束后触发 Mixed GC，"
+                            + "同时回收年轻代和部分回收价值高的老年代 Region，可通过 MaxGCPauseMillis 设置停顿目标。"),
+            doc("cms", "CMS 垃圾回收器",
+                    "CMS 以获取最短停顿时间为目标，采用标记-清除算法，包括初始标记、并发标记、重新标记、并发清除四个阶段，"
+                            + "会产生内存碎片，并发失败时退化为 Serial Old。"),
+            doc("aqs", "AQS 原理",
+                    "AbstractQueuedSynchronizer 使用 volatile int state 表示同步状态，获取失败的线程进入 CLH 变体的双向队列等待。"
+                            + "ReentrantLock 基于 AQS 实现独占锁，CountDownLatch 基于共享模式实现。"),
+            doc("threadpool", "线程池参数与拒绝策略",
+                    "ThreadPoolExecutor 的核心参数包括核心线程数、最大线程数、空闲存活时间和工作队列。"
+                            + "队列满且线程数达到最大值时执行拒绝策略：AbortPolicy、CallerRunsPolicy、DiscardPolicy、DiscardOldestPolicy。"),
+            doc("volatile", "volatile 关键字",
+                    "volatile 保证变量的可见性并禁止指令重排序，通过内存屏障实现，但不保证复合操作的原子性，"
+                            + "双重检查单例需要把实例声明为 volatile。"),
+            doc("sync-upgrade", "synchronized 锁升级",
+                    "synchronized 的锁状态记录在对象头 Mark Word 中，会从无锁、偏向锁升级到轻量级锁，"
+                            + "竞争激烈时膨胀为重量级锁，依赖操作系统互斥量。"),
+            doc("spring-tx", "Spring 事务传播行为",
+                    "Spring 声明式事务基于 AOP 实现，传播行为 REQUIRED 加入当前事务，REQUIRES_NEW 挂起当前事务新建事务，"
+                            + "NESTED 使用保存点。同类内部方法调用不会经过代理，事务注解失效。"),
+            doc("spring-circular", "Spring 循环依赖",
+                    "Spring 通过三级缓存解决单例 Bean 的 setter 循环依赖：singletonObjects、earlySingletonObjects、"
+                            + "singletonFactories。构造器注入的循环依赖无法通过三级缓存解决。"),
+            doc("spring-aop", "Spring AOP",
+                    "Spring AOP 基于动态代理，目标类实现接口时默认使用 JDK 动态代理，否则使用 CGLIB 生成子类，"
+                            + "切面通过通知在连接点前后织入逻辑。"),
+            doc("kafka-idempotent", "Kafka 重复消费与幂等",
+                    "消费者提交位移前宕机会导致消息重复消费，业务侧需要保证幂等，例如使用唯一业务 ID 去重表或 Redis SETNX。"
+                            + "生产者开启 enable.idempotence 可避免重试导致的重复写入。"),
+            doc("mq-order", "消息顺序性",
+                    "Kafka 只保证单个分区内的消息有序，需要顺序消费的消息应使用相同的 Key 发送到同一分区，"
+                            + "消费端单线程处理或按 Key 分发到内存队列。"),
+            doc("tcp", "TCP 三次握手与四次挥手",
+                    "TCP 建立连接需要三次握手：SYN、SYN+ACK、ACK，防止已失效的连接请求到达服务器；"
+                            + "断开连接需要四次挥手，主动关闭方进入 TIME_WAIT 等待 2MSL。"),
+            doc("http", "HTTP 与 HTTPS",
+                    "HTTPS 在 HTTP 与 TCP 之间加入 TLS，握手阶段使用非对称加密协商会话密钥，之后使用对称加密传输数据，"
+                            + "证书由 CA 签名用于验证服务器身份。")
+    );
+
+    /**
+     * 标注的查询集：查询 -> 相关片段ID
+     */
+    private static final Map<String, String> LABELLED_QUERIES = Map.ofEntries(
+            Map.entry("ConcurrentHashMap CAS", "chm"),
+            Map.entry("MVCC", "mvcc"),
+            Map.entry("Redis 分布式锁 误删", "redis-lock"),
+            Map.entry("缓存穿透 布隆过滤器", "cache-penetration"),
+            Map.entry("G1 Mixed GC", "g1"),
+            Map.entry("AQS CLH 队列", "aqs"),
+            Map.entry("Spring 事务传播行为 REQUIRES_NEW", "spring-tx"),
+            Map.entry("B+树 回表", "btree-index"),
+            Map.entry("线程池 拒绝策略", "threadpool"),
+            Map.entry("Kafka 重复消费 幂等", "kafka-idempotent"),
+            Map.entry("volatile 指令重排", "volatile"),
+            Map.entry("TCP 三次握手", "tcp"),
+            Map.entry("HashMap 扩容 红黑树", "hashmap"),
+            Map.entry("Bean 循环依赖 三级缓存", "spring-circular"),
+            Map.entry("synchronized 锁升级 偏向锁", "sync-upgrade")
+    );
+
+    private final Bm25Index index = Bm25Index.build(CORPUS);
+
+    @Test
+    void recall() {
+        Random random = new Random(42);
+        int emptyVectorHits = 0;
+        int lexicalHits = 0;
+        int noisyVectorHits = 0;
+        for (Map.Entry<String, String> labelled : LABELLED_QUERIES.entrySet()) {
+            String query = labelled.getKey();
+            String expected = labelled.getValue();
+            List<Document> lexical = index.search(query, 20);
+
+            // 向量一路在阈值下没有结果
+            if (contains(ReciprocalRankFusion.fuse(ReciprocalRankFusion.DEFAULT_K, TOP_K, List.of(List.of(), lexical)), expected)) {
+                emptyVectorHits++;
+            }
+            if (contains(lexical.subList(0, Math.min(TOP_K, lexical.size())), expected)) {
+                lexicalHits++;
+            }
+            // 向量一路质量较差：相关片段排在第 5 位，前面是随机的不相关片段
+            List<Document> noisyVector = noisyVectorRanking(expected, random);
+            if (contains(ReciprocalRankFusion.fuse(ReciprocalRankFusion.DEFAULT_K, TOP_K, List.of(noisyVector, lexical)), expected)) {
+                noisyVectorHits++;
+            }
+        }
+        int total = LABELLED_QUERIES.size();
+
+        Assertions.assertTrue(emptyVectorHits >= total * 0.9, "hybrid (vector empty) recall@" + TOP_K + " = " + emptyVectorHits + "/" + total);
+        Assertions.assertTrue(lexicalHits >= total * 0.9, "bm25 only recall@" + TOP_K + " = " + lexicalHits + "/" + total);
+        Assertions.assertTrue(noisyVectorHits >= total * 0.9, "hybrid (noisy vector) recall@" + TOP_K + " = " + noisyVectorHits + "/" + total);
+    }
+
+    @Test
+    void fusionPrefersDocumentsFoundByBothLegs() {
+        Document a = CORPUS.get(0);
+        Document b = CORPUS.get(1);
+        Document c = CORPUS.get(2);
+
+        List<Document> fused = ReciprocalRankFusion.fuse(60, 3, List.of(List.of(a, b), List.of(c, b)));
+
+        Assertions.assertEquals(List.of(b, a, c), fused);
+    }
+
+    @Test
+    void latency() {
+        BenchmarkSupport.assumeEnabled();
+        List<Document> large = new ArrayList<>();
+        for (int copy = 0; copy < 500; copy++) {
+            for (Document document : CORPUS) {
+                large.add(new Document(document.getId() + "-" + copy, document.getText(), new HashMap<>(document.getMetadata())));
+            }
+        }
+        long buildStart = System.nanoTime();
+        Bm25Index largeIndex = Bm25Index.build(large);
+        System.out.printf("bm25 build %d docs: %.1f ms%n", largeIndex.size(), (System.nanoTime() - buildStart) / 1e6);
+
+        List<String> queries = new ArrayList<>(LABELLED_QUERIES.keySet());
+        List<Document> vector = large.subList(0, 20);
+        int[] cursor = {0};
+        measure("bm25 search", () -> largeIndex.search(queries.get(cursor[0]++ % queries.size()), 20));
+        List<Document> lexical = largeIndex.search("ConcurrentHashMap CAS", 20);
+        measure("rrf fuse", () -> ReciprocalRankFusion.fuse(60, TOP_K, List.of(vector, lexical)));
+    }
+
+    private List<Document> noisyVectorRanking(String expected, Random random) {
+        List<Document> others = new ArrayList<>();
+        for (Document document : CORPUS) {
+            if (!document.getId().equals(expected)) {
+                others.add(document);
+            }
+        }
+        Collections.shuffle(others, random);
+        List<Document> ranking = new ArrayList<>(others.subList(0, 4));
+        ranking.add(CORPUS.stream().filter(document -> document.getId().equals(expected)).findFirst().orElseThrow());
+        ranking.addAll(others.subList(4, 10));
+        return ranking;
+    }
+
+    private static boolean contains(List<Document> documents, String id) {
+        return documents.stream().anyMatch(document -> document.getId().equals(id));
+    }
+
+    private static Document doc(String id, String sectionTitle, String text) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("source", id + ".md");
+        metadata.put("section_title", sectionTitle);
+        return new Document(id, text, metadata);
+    }
+
+    private void measure(String name, Runnable task) {
+        BenchmarkSupport.measure(name, WARMUP_ROUNDS, MEASURE_ROUNDS, task);
+    }
+}
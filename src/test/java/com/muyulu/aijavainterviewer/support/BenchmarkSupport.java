@@ -0,0 +1,41 @@
+package com.muyulu.aijavainterviewer.support;
+
+import org.junit.jupiter.api.Assumptions;
+
+/**
+ * 基准测试公共工具
+ * 计时类测试默认跳过，需要时通过系统属性开启：
+ * mvn test -Dtest=XxxBenchmarkTest -Dbenchmark=true
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 未开启 benchmark 系统属性时跳过当前测试
+     */
+    public static void assumeEnabled() {
+        Assumptions.assumeTrue(Boolean.getBoolean("benchmark"), "未指定 -Dbenchmark=true，跳过基准测试");
+    }
+
+    /**
+     * 预热后执行指定次数并输出吞吐
+     * @param name 名称
+     * @param warmupRounds 预热次数
+     * @param measureRounds 计时次数
+     * @param task 被测逻辑
+     */
+    public static void measure(String name, int warmupRounds, int measureRounds, Runnable task) {
+        for (int i = 0; i < warmupRounds; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < measureRounds; i++) {
+            task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-18s %12.0f ops/s %8.3f us/op%n",
+                name, measureRounds / (elapsed / 1e9), elapsed / 1e3 / measureRounds);
+    }
+}
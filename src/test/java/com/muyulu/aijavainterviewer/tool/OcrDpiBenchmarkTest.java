@@ -0,0 +1,119 @@
+package com.muyulu.aijavainterviewer.tool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * OCR 分辨率基准
+ * 对夹具目录中的每个 PDF 分别以固定 DPI 和自适应 DPI 识别，输出耗时与字符准确率。
+ * 夹具目录下放置 xxx.pdf 与同名的 xxx.txt（人工校对文本），未指定目录时跳过：
+ * mvn test -Dtest=OcrDpiBenchmarkTest -Docr.benchmark.fixtures=/path/to/fixtures -Docr.benchmark.tessdata=/path/to/tessdata
+ */
+class OcrDpiBenchmarkTest {
+
+    private static final int[] FIXED_DPIS = {150, 200, 300};
+
+    private static TesseractOcrPool ocrPool;
+    private static PdfOcrPipeline pipeline;
+    private static List<File> fixtures;
+
+    @BeforeAll
+    static void setUp() {
+        String fixturesDir = System.getProperty("ocr.benchmark.fixtures");
+        Assumptions.assumeTrue(fixturesDir != null && new File(fixturesDir).isDirectory(),
+                "未指定 ocr.benchmark.fixtures，跳过 OCR 基准");
+        File[] pdfs = new File(fixturesDir).listFiles((dir, name) -> name.toLowerCase().endsWith(".pdf"));
+        fixtures = pdfs == null ? List.of() : List.of(pdfs);
+        Assumptions.assumeFalse(fixtures.isEmpty(), "夹具目录中没有 PDF");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ocrPool = new TesseractOcrPool(
+                System.getProperty("ocr.benchmark.tessdata", ""),
+                System.getProperty("ocr.benchmark.language", "chi_sim+eng"),
+                0, 64, 300, new OcrImagePreprocessor(true), meterRegistry);
+        pipeline = new PdfOcrPipeline(ocrPool, FIXED_DPIS, 70, 0, meterRegistry);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (ocrPool != null) {
+            ocrPool.shutdown();
+        }
+    }
+
+    @Test
+    void compareDpi() throws IOException {
+        System.out.printf("%-30s %-10s %10s %10s%n", "fixture", "dpi", "time(ms)", "accuracy");
+        for (File pdf : fixtures) {
+            String expected = readExpected(pdf);
+            try (PDDocument document = PDDocument.load(pdf)) {
+                List<Integer> pages = IntStream.range(0, document.getNumberOfPages()).boxed().toList();
+
+                for (int dpi : FIXED_DPIS) {
+                    long start = System.nanoTime();
+                    Map<Integer, OcrResult> results = pipeline.ocrPass(new PDFRenderer(document), pages, dpi);
+                    long elapsed = (System.nanoTime() - start) / 1_000_000;
+                    List<String> texts = new ArrayList<>();
+                    results.values().forEach(result -> texts.add(result.text()));
+                    report(pdf, String.valueOf(dpi), elapsed, String.join("\n", texts), expected);
+                }
+
+                long start = System.nanoTime();
+                Map<Integer, String> adaptive = pipeline.ocrPages(document, pages);
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                report(pdf, "adaptive", elapsed, String.join("\n", adaptive.values()), expected);
+            }
+        }
+    }
+
+    private void report(File pdf, String dpi, long elapsedMillis, String actual, String expected) {
+        String accuracy = expected == null ? "-" : String.format("%.2f%%", characterAccuracy(actual, expected) * 100);
+        System.out.printf("%-30s %-10s %10d %10s%n", pdf.getName(), dpi, elapsedMillis, accuracy);
+    }
+
+    private String readExpected(File pdf) throws IOException {
+        File expected = new File(pdf.getParentFile(), pdf.getName().replaceAll("(?i)\\.pdf$", ".txt"));
+        return expected.isFile() ? Files.readString(expected.toPath(), StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * 字符准确率 = 1 - 编辑距离 / 参考文本长度，比较前去掉空白
+     */
+    private double characterAccuracy(String actual, String expected) {
+        String a = actual.replaceAll("\\s+", "");
+        String e = expected.replaceAll("\\s+", "");
+        if (e.isEmpty()) {
+            return a.isEmpty() ? 1 : 0;
+        }
+        int[] previous = new int[e.length() + 1];
+        int[] current = new int[e.length() + 1];
+        for (int j = 0; j <= e.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= e.length(); j++) {
+                int cost = a.charAt(i - 1) == e.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.max(0, 1 - (double) previous[e.length()] / e.length());
+    }
+}